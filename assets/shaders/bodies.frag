@@ -0,0 +1,54 @@
+#ifdef GL_ES
+precision mediump float;
+#endif
+
+// Signed-distance version of PhysicsRenderer's layers: three glow rings, the
+// fill, an inner shadow and a pulsing outline, composited back to front.
+
+varying vec2 v_local;
+varying float v_radius;
+varying vec4 v_color;
+
+uniform float u_pixelSize;    // World units per screen pixel
+uniform float u_outlineWidth; // In pixels
+uniform float u_pulse;        // Outline radius scale
+uniform vec2 u_shadowOffset;  // In body radii
+uniform float u_glowAlpha;    // Innermost ring
+uniform float u_glowLayers;   // Rings to draw, up to 3
+uniform float u_shadowAlpha;
+uniform float u_glowIntensity;
+
+// Coverage of a disc of the given radius, antialiased over one pixel
+float disc(float distance, float radius, float aa) {
+    return clamp((radius - distance) / aa + 0.5, 0.0, 1.0);
+}
+
+// Premultiplied "over"
+vec4 over(vec4 dst, vec3 color, float alpha) {
+    return vec4(color * alpha + dst.rgb * (1.0 - alpha), alpha + dst.a * (1.0 - alpha));
+}
+
+void main() {
+    float aa = u_pixelSize / v_radius;
+    float d = length(v_local);
+    vec4 result = vec4(0.0);
+
+    for (int i = 0; i < 3; i++) {
+        if (float(i) >= u_glowLayers) break;
+        float layerRadius = 1.15 + float(i) * 0.15;
+        float alpha = u_glowAlpha * float(3 - i) / 3.0;
+        result = over(result, v_color.rgb, alpha * disc(d, layerRadius, aa));
+    }
+
+    result = over(result, clamp(v_color.rgb * 0.9, 0.0, 1.0), 0.9 * disc(d, 1.0, aa));
+
+    float shadow = disc(length(v_local - u_shadowOffset), 0.85, aa);
+    result = over(result, vec3(0.0), u_shadowAlpha * shadow);
+
+    float halfWidth = 0.5 * u_outlineWidth * aa;
+    float ring = clamp((halfWidth - abs(d - u_pulse)) / aa + 0.5, 0.0, 1.0);
+    result = over(result, clamp(v_color.rgb * u_glowIntensity, 0.0, 1.0), v_color.a * ring);
+
+    if (result.a <= 0.0) discard;
+    gl_FragColor = result;
+}
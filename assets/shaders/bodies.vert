@@ -0,0 +1,19 @@
+// One quad per body. Every corner carries the body's data, so a whole frame
+// is drawn from a single vertex buffer without GL3 instancing.
+attribute vec2 a_position;
+attribute vec2 a_local;     // Corner offset from the centre, in body radii
+attribute float a_radius;
+attribute vec4 a_color;
+
+uniform mat4 u_projTrans;
+
+varying vec2 v_local;
+varying float v_radius;
+varying vec4 v_color;
+
+void main() {
+    v_local = a_local;
+    v_radius = a_radius;
+    v_color = a_color;
+    gl_Position = u_projTrans * vec4(a_position, 0.0, 1.0);
+}
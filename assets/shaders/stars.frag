@@ -0,0 +1,16 @@
+#ifdef GL_ES
+precision mediump float;
+#endif
+
+varying vec2 v_offset;
+varying float v_radius;
+varying vec4 v_color;
+
+uniform float u_pixelSize; // World units per screen pixel
+
+void main() {
+    // Filled disc, antialiased over one pixel
+    float coverage = clamp((v_radius - length(v_offset)) / u_pixelSize + 0.5, 0.0, 1.0);
+    if (coverage <= 0.0) discard;
+    gl_FragColor = vec4(v_color.rgb, v_color.a * coverage);
+}
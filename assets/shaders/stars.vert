@@ -0,0 +1,21 @@
+// One quad per star, baked once. Only the camera changes between frames, so
+// parallax and zoom come entirely from u_projTrans.
+attribute vec2 a_position;
+attribute vec2 a_local;     // Corner direction, (+-1, +-1)
+attribute float a_radius;
+attribute vec4 a_color;
+
+uniform mat4 u_projTrans;
+uniform float u_pixelSize;  // World units per screen pixel
+
+varying vec2 v_offset;      // From the star's centre, in world units
+varying float v_radius;
+varying vec4 v_color;
+
+void main() {
+    // Pad by a pixel so the antialiased edge, and stars under a pixel, still get fragments
+    v_offset = a_local * (a_radius + u_pixelSize);
+    v_radius = a_radius;
+    v_color = a_color;
+    gl_Position = u_projTrans * vec4(a_position + v_offset, 0.0, 1.0);
+}
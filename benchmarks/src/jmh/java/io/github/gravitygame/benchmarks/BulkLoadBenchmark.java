@@ -0,0 +1,68 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.scenarios.Scenario;
+
+/**
+ * Loading a generated scene into a running simulation: one bulk edit and the
+ * single re-simulation of the history window it causes. Every iteration
+ * starts from a fresh simulation with a full history, so each load is timed
+ * once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkLoadBenchmark {
+    @Param({ "1000", "10000" })
+    public int bodies;
+
+    @Param({ "galaxy", "plummer" })
+    public String scenario;
+
+    private SimulationFixture fixture;
+    private Scenario scene;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        scene = Scenario.generate(scenario, bodies, SimulationFixture.SEED);
+    }
+
+    @Setup(Level.Iteration)
+    public void createSimulation() {
+        fixture = new SimulationFixture(100, SimulationManager.Backend.NATIVE);
+        fixture.fillHistory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void disposeSimulation() {
+        fixture.dispose();
+    }
+
+    @Benchmark
+    public double load() {
+        scene.addTo(fixture.simulationManager);
+        fixture.simulationManager.update(0f);
+        fixture.simulationManager.fastForwardToPresent();
+        return fixture.simulationManager.getSimulationTime();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.physics.CollisionManager;
+
+/**
+ * One collision scan of the displayed frame. The frame does not change, so
+ * after the first scan every overlap is already known and none is reported;
+ * the score is the cost of finding the overlapping pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int bodies;
+
+    private SimulationFixture fixture;
+    private CollisionManager collisionManager;
+    private int collisions;
+
+    @Setup
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        fixture = new SimulationFixture(bodies, SimulationManager.Backend.NATIVE);
+        collisionManager = new CollisionManager(fixture.worldStateManager, (size, intensity) -> collisions++);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.dispose();
+    }
+
+    @Benchmark
+    public int update() {
+        collisionManager.update();
+        return collisions;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.physics.BodyStore;
+import io.github.gravitygame.physics.GravityManager;
+
+/**
+ * One gravity evaluation over the body store, with the solver the game would
+ * pick for the body count unless {@code solver} says otherwise. Positions do
+ * not move between invocations, so every call does the same work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GravityBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int bodies;
+
+    @Param({ "AUTO" })
+    public GravityManager.Solver solver;
+
+    private SimulationFixture fixture;
+    private BodyStore store;
+    private double time;
+
+    @Setup
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        GravityManager.setSolver(solver);
+        fixture = new SimulationFixture(bodies, SimulationManager.Backend.BOX2D);
+        store = fixture.simulationManager.getBodyStore();
+        time = fixture.simulationManager.getSimulationTime();
+    }
+
+    @TearDown
+    public void tearDown() {
+        GravityManager.setSolver(GravityManager.Solver.AUTO);
+        fixture.dispose();
+    }
+
+    @Benchmark
+    public BodyStore updateGravity() {
+        GravityManager.updateGravity(store, time);
+        return store;
+    }
+}
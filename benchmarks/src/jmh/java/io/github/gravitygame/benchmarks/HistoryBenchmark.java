@@ -0,0 +1,68 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.WorldStateManager;
+
+/**
+ * Snapshot capture and display cycling on a full history, as in a running
+ * game. The simulation does not advance, so every frame has the same bodies.
+ * {@code cycleStates} drops a frame that the following capture replaces,
+ * keeping the history full; subtract {@code capture} for the cycle alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int bodies;
+
+    private SimulationFixture fixture;
+    private WorldStateManager worldStateManager;
+
+    @Setup
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        fixture = new SimulationFixture(bodies, SimulationManager.Backend.NATIVE);
+        fixture.fillHistory();
+        worldStateManager = fixture.worldStateManager;
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.dispose();
+    }
+
+    /**
+     * Publishes one frame and moves it into the history, overwriting the oldest.
+     */
+    @Benchmark
+    public int capture() {
+        worldStateManager.update(WorldStateManager.CAPTURE_INTERVAL);
+        worldStateManager.drainFrames();
+        return worldStateManager.getHistorySize();
+    }
+
+    @Benchmark
+    public int cycleStates() {
+        worldStateManager.cycleStates();
+        return capture();
+    }
+}
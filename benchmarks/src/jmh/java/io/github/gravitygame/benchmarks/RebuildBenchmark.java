@@ -0,0 +1,84 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Re-simulation of the history window after an edit. Each invocation is set
+ * up by alternately adding a body and removing it again, so the body count
+ * stays put; the edit's first update runs in the setup and
+ * {@link SimulationManager#fastForwardToPresent} finishes the rest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RebuildBenchmark {
+    @Param({ "100", "1000" })
+    public int bodies;
+
+    @Param({ "BOX2D", "NATIVE" })
+    public SimulationManager.Backend backend;
+
+    private SimulationFixture fixture;
+    private final Vector2 velocity = new Vector2(0, 50);
+    private boolean added = false;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        fixture = new SimulationFixture(bodies, backend);
+        fixture.fillHistory();
+    }
+
+    @Setup(Level.Invocation)
+    public void edit() {
+        WorldStateManager worldStateManager = fixture.worldStateManager;
+        SimulationManager simulationManager = fixture.simulationManager;
+        // Swap in the timeline the previous invocation finished
+        worldStateManager.drainFrames();
+        if (added) {
+            WorldState newest = worldStateManager.getMostRecentState();
+            UUID id = newest.getId(newest.size() - 1);
+            simulationManager.removeBody(id);
+        } else {
+            simulationManager.addBody(0, -100, 4, velocity, Color.WHITE);
+        }
+        added = !added;
+        simulationManager.update(0f);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.dispose();
+    }
+
+    @Benchmark
+    public double fastForwardToPresent() {
+        fixture.simulationManager.fastForwardToPresent();
+        return fixture.simulationManager.getSimulationTime();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.gravitygame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.gravitygame.managers.SimulationManager;
+
+/**
+ * A full {@link SimulationManager#update} of one physics step: gravity,
+ * integration and, for the native backend, the write-back into Box2D.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    // One fixed step per update, give or take accumulator rounding
+    private static final float STEP = 1 / 60f;
+
+    @Param({ "100", "1000", "10000" })
+    public int bodies;
+
+    @Param({ "BOX2D", "NATIVE" })
+    public SimulationManager.Backend backend;
+
+    private SimulationFixture fixture;
+
+    @Setup
+    public void setUp() {
+        SimulationFixture.loadNatives();
+        fixture = new SimulationFixture(bodies, backend);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.dispose();
+    }
+
+    @Benchmark
+    public double update() {
+        fixture.simulationManager.update(STEP);
+        return fixture.simulationManager.getSimulationTime();
+    }
+}
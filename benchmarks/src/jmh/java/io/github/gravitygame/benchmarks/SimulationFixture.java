@@ -0,0 +1,62 @@
+package io.github.gravitygame.benchmarks;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.SimulationThread;
+import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.scenarios.Scenario;
+
+/**
+ * A simulation wired up as the game wires it, loaded with a seeded scenario
+ * and ticked on the calling thread. Every benchmark starts from the same
+ * bodies for a given body count.
+ */
+final class SimulationFixture {
+    static final long SEED = 42;
+
+    private static boolean nativesLoaded = false;
+
+    final SimulationManager simulationManager = new SimulationManager();
+    final WorldStateManager worldStateManager = new WorldStateManager();
+    private final SimulationThread simulation;
+
+    SimulationFixture(int bodies, SimulationManager.Backend backend) {
+        simulationManager.setWorldStateManager(worldStateManager);
+        worldStateManager.setSimulationManager(simulationManager);
+        simulationManager.setBackend(backend);
+        simulation = new SimulationThread(simulationManager, worldStateManager);
+        Scenario.orbits(bodies, SEED).addTo(simulationManager);
+        // Places the bodies and captures the first frame
+        tick();
+    }
+
+    static synchronized void loadNatives() {
+        if (nativesLoaded) return;
+        GdxNativesLoader.load();
+        Box2D.init();
+        nativesLoaded = true;
+    }
+
+    /**
+     * Advances one simulation tick and moves its frame into the history.
+     */
+    void tick() {
+        simulation.tick();
+        worldStateManager.drainFrames();
+    }
+
+    /**
+     * Ticks until the history holds a full window of frames.
+     */
+    void fillHistory() {
+        while (worldStateManager.getHistorySize() < WorldStateManager.MAX_STATES) {
+            tick();
+        }
+    }
+
+    void dispose() {
+        simulationManager.dispose();
+    }
+}
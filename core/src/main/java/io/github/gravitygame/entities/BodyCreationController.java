@@ -11,11 +11,15 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.World;
 
 import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.utils.WorldState;
 
 public class BodyCreationController extends InputAdapter {
     public enum CreationState { INACTIVE, SETTING_POSITION, SETTING_RADIUS, SETTING_VELOCITY}
 
     private final SimulationManager simulationManager;
+    // Source of the displayed bodies; the live ones belong to the simulation thread
+    private final WorldStateManager worldStateManager;
     private final BodyPreviewRenderer previewRenderer;
     private final OrthographicCamera camera;
     private final float velocityScale;
@@ -23,8 +27,10 @@ public class BodyCreationController extends InputAdapter {
     private CreationState currentState = CreationState.INACTIVE;
     private final BodyCreationData data = new BodyCreationData();
 
-    public BodyCreationController(SimulationManager simulationManager, World physicsWorld, OrthographicCamera camera, float velocityScale) {
+    public BodyCreationController(SimulationManager simulationManager, WorldStateManager worldStateManager,
+                                  World physicsWorld, OrthographicCamera camera, float velocityScale) {
         this.simulationManager = simulationManager;
+        this.worldStateManager = worldStateManager;
         this.camera = camera;
         this.velocityScale = velocityScale;
         this.previewRenderer = new BodyPreviewRenderer();
@@ -36,7 +42,8 @@ public class BodyCreationController extends InputAdapter {
     }
 
     public void startOrbiterCreation() {
-        if (simulationManager.getBodies().size == 0) {
+        WorldState displayed = worldStateManager.getOldestState();
+        if (displayed == null || displayed.size() == 0) {
             // Cannot create an orbiter if there are no primary bodies
             return;
         }
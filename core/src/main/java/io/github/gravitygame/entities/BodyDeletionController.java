@@ -28,53 +28,40 @@ public class BodyDeletionController extends InputAdapter {
             Vector2 mouseWorldPos = new Vector2(worldPos.x, worldPos.y);
             
             // Get the UUID of the body to delete from the displayed world state
-            BodyState bodyState = findBodyStateAtPosition(mouseWorldPos);
+            WorldState displayedState = worldStateManager.getOldestState();
+            int index = findBodyStateAtPosition(displayedState, mouseWorldPos);
             
-            if (bodyState != null) {
-                System.out.println("Deleting body: " + bodyState.getId() + " at position: " + bodyState.getPosition());
-                simulationManager.removeBody(bodyState.getId());
+            if (index >= 0) {
+                simulationManager.removeBody(displayedState.getId(index));
                 return true;
             }
         }
         return false;
     }
     
-    private BodyState findBodyStateAtPosition(Vector2 position) {
-        System.out.println("Searching for body at position: " + position);
+    /**
+     * @return The index of the body under the position in the displayed state, or -1
+     */
+    private int findBodyStateAtPosition(WorldState displayedState, Vector2 position) {
+        if (displayedState == null) return -1;
         
-        // Get the currently displayed world state
-        WorldState displayedState = worldStateManager.getOldestState();
-        if (displayedState == null) return null;
-        
-        BodyState closestBody = null;
+        int closestBody = -1;
         float closestDistance = Float.MAX_VALUE;
         
-        for (BodyState bodyState : displayedState.getBodyStates()) {
-            Vector2 bodyPosition = bodyState.getPosition();
-            float radius = bodyState.getRadius();
-            float distance = position.dst(bodyPosition);
-            
-            System.out.println("Body ID: " + bodyState.getId() +
-                             ", position: " + bodyPosition + 
-                             ", radius: " + radius + 
-                             ", distance: " + distance);
+        for (int i = 0; i < displayedState.size(); i++) {
+            float radius = displayedState.getRadius(i);
+            float distance = position.dst(displayedState.getX(i), displayedState.getY(i));
             
             // Check if click is within the body's exact radius
             if (distance <= radius) {
                 // If multiple bodies overlap, select the closest one
                 if (distance < closestDistance) {
                     closestDistance = distance;
-                    closestBody = bodyState;
+                    closestBody = i;
                 }
             }
         }
         
-        if (closestBody != null) {
-            System.out.println("Body found: " + closestBody.getId());
-            return closestBody;
-        }
-        
-        System.out.println("No body found within radius");
-        return null;
+        return closestBody;
     }
 }
\ No newline at end of file
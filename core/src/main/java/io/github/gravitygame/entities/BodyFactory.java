@@ -14,13 +14,20 @@ public final class BodyFactory {
     private BodyFactory() {} // Static utility
 
     public static PhysicsBody createBody(World world, Vector2 velocity, float x, float y, float radius, float mass, Color color) {
+        return createBody(world, velocity, x, y, radius, mass, color, UUID.randomUUID());
+    }
+
+    /**
+     * Creates a body that keeps an existing identity, e.g. when restoring a saved state.
+     */
+    public static PhysicsBody createBody(World world, Vector2 velocity, float x, float y, float radius, float mass, Color color, UUID id) {
         BodyState initialState = new BodyState(
             new Vector2(x, y),
             velocity,
             radius, 
             mass,
             color,
-            UUID.randomUUID()
+            id
         );
         Body body = createBox2DBody(world, initialState);
         return new PhysicsBody(body, initialState);
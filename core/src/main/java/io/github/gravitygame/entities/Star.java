@@ -1,5 +1,7 @@
 package io.github.gravitygame.entities;
 
+import java.util.Random;
+
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
@@ -12,13 +14,21 @@ public class Star {
 
     // Constructor now includes distance and random brightness
     public Star(float x, float y, float distance) {
+        this(x, y, distance, MathUtils.random);
+    }
+
+    /**
+     * Draws size and colour from the given generator, so a seeded generator
+     * always produces the same star.
+     */
+    public Star(float x, float y, float distance, Random random) {
         this.position = new Vector2(x, y);
 
         // Adjust size based on distance (near stars are bigger, far stars are smaller)
-        this.size = MathUtils.random(50f, 150f) * (1 / distance); // Smaller stars for distant
+        this.size = (50f + random.nextFloat() * 100f) * (1 / distance); // Smaller stars for distant
 
         // Add slight color variations based on distance (simulating temperature)
-        float temp = MathUtils.random(); // Random temperature for star color
+        float temp = random.nextFloat(); // Random temperature for star color
         if (temp < 0.33f) {
             this.color = new Color(1f, 0.75f, 0.4f, 1f); // Red-orange (closer stars)
         } else if (temp < 0.66f) {
@@ -5,16 +5,15 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.utils.Array;
 
-import io.github.gravitygame.entities.PhysicsBody; // For checking UI interaction
+import io.github.gravitygame.utils.WorldState;
 
 public class CameraController extends InputAdapter {
 
     public enum CameraMode { FOLLOW, PAN }
 
     private final OrthographicCamera camera;
-    private final SimulationManager simulationManager;
+    private final WorldStateManager worldStateManager;
     private final Stage stage; // To check if the input is hitting a UI element
     private CameraMode mode = CameraMode.PAN;
     private float parallaxFactor = .9f; // Background moves at 50% speed
@@ -28,9 +27,9 @@ public class CameraController extends InputAdapter {
     private final float MIN_ZOOM = 0.5f;
     private final float MAX_ZOOM = 5f;
 
-    public CameraController(OrthographicCamera camera, SimulationManager simulationManager, Stage stage) {
+    public CameraController(OrthographicCamera camera, WorldStateManager worldStateManager, Stage stage) {
         this.camera = camera;
-        this.simulationManager = simulationManager;
+        this.worldStateManager = worldStateManager;
         this.stage = stage;
     }
 
@@ -51,13 +50,13 @@ public class CameraController extends InputAdapter {
     }
 
     /**
-     * Update the camera position. In FOLLOW mode, center on the simulation's center of mass.
+     * Update the camera position. In FOLLOW mode, center on the displayed bodies' center.
      */
     public void update(float delta) {
         if (mode == CameraMode.FOLLOW) {
-            Array<PhysicsBody> bodies = simulationManager.getBodies();
-            if (!bodies.isEmpty()) {
-                Vector2 com = calculateSmoothCenter(bodies, delta);
+            WorldState displayed = worldStateManager.getOldestState();
+            if (displayed != null && displayed.size() > 0) {
+                Vector2 com = calculateSmoothCenter(displayed, delta);
                 camera.position.lerp(new Vector3(com, 0), 5 * delta); // Smooth follow
             }
         }
@@ -128,12 +127,12 @@ public class CameraController extends InputAdapter {
         return true;
     }
 
-    private Vector2 calculateSmoothCenter(Array<PhysicsBody> bodies, float delta) {
+    private Vector2 calculateSmoothCenter(WorldState bodies, float delta) {
         Vector2 center = new Vector2();
-        for (PhysicsBody body : bodies) {
-            center.add(body.getPosition());
+        for (int i = 0; i < bodies.size(); i++) {
+            center.add(bodies.getX(i), bodies.getY(i));
         }
-        center.scl(1f / bodies.size);
+        center.scl(1f / bodies.size());
         return center;
     }
 
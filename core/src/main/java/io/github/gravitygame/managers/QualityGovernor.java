@@ -0,0 +1,191 @@
+package io.github.gravitygame.managers;
+
+import io.github.gravitygame.physics.GravityManager;
+import io.github.gravitygame.physics.PhysicsRenderer;
+import io.github.gravitygame.physics.TrajectoryRenderer;
+import io.github.gravitygame.utils.PerformanceMonitor;
+import io.github.gravitygame.utils.PerformanceMonitor.Phase;
+
+/**
+ * Holds the frame budget by trading visual and physical detail for time. The
+ * governor reads the phase timings of {@link PerformanceMonitor} and moves
+ * through a ladder of quality levels, each of which shortens and thins the
+ * trails, drops glow rings and circle segments, draws fewer stars, widens the
+ * Barnes-Hut opening angle and captures the history less often.
+ *
+ * <p>Load is the larger of the render thread's work against the target frame
+ * time and the simulation thread's busy share against {@link #SIMULATION_BUDGET}.
+ * Render work is the sum of the render phases, so time spent waiting for vsync
+ * does not count. Quality drops soon after the load stays over budget and only
+ * recovers after it has stayed well under, so it does not oscillate.
+ * Call {@link #update} once per frame on the render thread, after the frame
+ * was ended on the monitor.
+ */
+public class QualityGovernor {
+    public static final float DEFAULT_TARGET_FRAME_TIME = 1000f / 60;
+
+    // Highest busy share of the simulation thread before it falls behind real time
+    private static final float SIMULATION_BUDGET = 0.8f;
+    // Load above which quality drops, and below which it may recover
+    private static final float DOWNGRADE_LOAD = 1.0f;
+    private static final float UPGRADE_LOAD = 0.7f;
+    // How long the load has to stay past a threshold, in seconds
+    private static final float DOWNGRADE_DELAY = 0.5f;
+    private static final float UPGRADE_DELAY = 3f;
+    // Time after a change for its effect to show in the timings
+    private static final float SETTLE_TIME = 1f;
+    // Smoothing of the measured load per second of frames
+    private static final float LOAD_SMOOTHING = 4f;
+
+    private static final String[] LEVEL_NAMES = { "Full", "High", "Medium", "Low", "Minimal" };
+    public static final int MAX_LEVEL = LEVEL_NAMES.length - 1;
+
+    // Settings per level, best first
+    private static final float[] TRAIL_LENGTH = { 1f, 0.75f, 0.5f, 0.35f, 0.25f };
+    private static final float[] TRAIL_TOLERANCE = { 0.75f, 1f, 1.5f, 2f, 3f };
+    private static final int[] GLOW_LAYERS = { 3, 2, 1, 1, 0 };
+    private static final int[] CIRCLE_SEGMENTS = { 36, 28, 20, 16, 12 };
+    private static final float[] STAR_FRACTION = { 1f, 0.75f, 0.5f, 0.35f, 0.25f };
+    private static final float[] OPENING_ANGLE = { GravityManager.DEFAULT_OPENING_ANGLE, 0.6f, 0.7f, 0.8f, 0.9f };
+    private static final int[] CAPTURE_DIVISOR = { 1, 1, 2, 2, 3 };
+
+    private static final Phase[] RENDER_PHASES = {
+        Phase.DRAIN, Phase.CAMERA, Phase.CYCLE, Phase.COLLISIONS,
+        Phase.BODIES, Phase.TRAJECTORIES, Phase.STARS, Phase.UI
+    };
+
+    private final PerformanceMonitor monitor;
+    private final TrajectoryRenderer trajectoryRenderer;
+    private final PhysicsRenderer physicsRenderer;
+    private final StarsManager starsManager;
+    private final WorldStateManager worldStateManager;
+
+    private boolean enabled = true;
+    private float targetFrameTime = DEFAULT_TARGET_FRAME_TIME;
+    private int level = 0;
+    private float load = 0;
+    private float overBudgetTime = 0;
+    private float underBudgetTime = 0;
+    private float settleTime = SETTLE_TIME;
+
+    // Phase sums at the previous update, to take differences from
+    private long lastRenderNanos;
+    private long lastSimulationNanos;
+
+    public QualityGovernor(PerformanceMonitor monitor, TrajectoryRenderer trajectoryRenderer,
+                           PhysicsRenderer physicsRenderer, StarsManager starsManager,
+                           WorldStateManager worldStateManager) {
+        this.monitor = monitor;
+        this.trajectoryRenderer = trajectoryRenderer;
+        this.physicsRenderer = physicsRenderer;
+        this.starsManager = starsManager;
+        this.worldStateManager = worldStateManager;
+        lastRenderNanos = renderNanos();
+        lastSimulationNanos = monitor.getHistogram(Phase.SIMULATION).getSum();
+        apply();
+    }
+
+    /**
+     * Measures the last frame and changes the quality level when the load has
+     * stayed past a threshold for long enough.
+     *
+     * @param delta Seconds since the previous call
+     */
+    public void update(float delta) {
+        long render = renderNanos();
+        long simulation = monitor.getHistogram(Phase.SIMULATION).getSum();
+        long renderWork = render - lastRenderNanos;
+        long simulationWork = simulation - lastSimulationNanos;
+        lastRenderNanos = render;
+        lastSimulationNanos = simulation;
+        // Timings were reset or switched off; nothing to judge by
+        if (!enabled || delta <= 0 || renderWork < 0 || simulationWork < 0 || !monitor.isEnabled()) return;
+
+        float frameLoad = renderWork / 1e6f / targetFrameTime;
+        float simulationLoad = simulationWork / 1e9f / delta / SIMULATION_BUDGET;
+        float sample = Math.max(frameLoad, simulationLoad);
+        load += (sample - load) * Math.min(1f, delta * LOAD_SMOOTHING);
+
+        if (settleTime > 0) {
+            settleTime -= delta;
+            return;
+        }
+        overBudgetTime = load > DOWNGRADE_LOAD ? overBudgetTime + delta : 0;
+        underBudgetTime = load < UPGRADE_LOAD ? underBudgetTime + delta : 0;
+        if (overBudgetTime >= DOWNGRADE_DELAY && level < MAX_LEVEL) {
+            setLevel(level + 1);
+        } else if (underBudgetTime >= UPGRADE_DELAY && level > 0) {
+            setLevel(level - 1);
+        }
+    }
+
+    private long renderNanos() {
+        long total = 0;
+        for (Phase phase : RENDER_PHASES) {
+            total += monitor.getHistogram(phase).getSum();
+        }
+        return total;
+    }
+
+    /**
+     * Moves to a quality level, 0 being full quality, and waits for the
+     * timings to reflect it before judging again.
+     */
+    public void setLevel(int newLevel) {
+        level = Math.max(0, Math.min(MAX_LEVEL, newLevel));
+        overBudgetTime = 0;
+        underBudgetTime = 0;
+        settleTime = SETTLE_TIME;
+        apply();
+    }
+
+    private void apply() {
+        trajectoryRenderer.setTrailLength(TRAIL_LENGTH[level]);
+        trajectoryRenderer.setTrailTolerance(TRAIL_TOLERANCE[level]);
+        physicsRenderer.setGlowLayers(GLOW_LAYERS[level]);
+        physicsRenderer.setCircleSegments(CIRCLE_SEGMENTS[level]);
+        starsManager.setStarFraction(STAR_FRACTION[level]);
+        GravityManager.setOpeningAngle(OPENING_ANGLE[level]);
+        worldStateManager.setCaptureDivisor(CAPTURE_DIVISOR[level]);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getLevelName() {
+        return LEVEL_NAMES[level];
+    }
+
+    /**
+     * Smoothed load, where 1 means the frame or the simulation is exactly on budget.
+     */
+    public float getLoad() {
+        return load;
+    }
+
+    /**
+     * Sets the render work allowed per frame, in milliseconds.
+     */
+    public void setTargetFrameTime(float milliseconds) {
+        this.targetFrameTime = Math.max(1f, milliseconds);
+    }
+
+    public float getTargetFrameTime() {
+        return targetFrameTime;
+    }
+
+    /**
+     * Turns the governor on or off. Turning it off restores full quality.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            setLevel(0);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
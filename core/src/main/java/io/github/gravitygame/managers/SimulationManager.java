@@ -1,8 +1,9 @@
 package io.github.gravitygame.managers;
 
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
@@ -11,16 +12,50 @@ import com.badlogic.gdx.utils.Array;
 import io.github.gravitygame.entities.BodyFactory;
 import io.github.gravitygame.entities.BodyState;
 import io.github.gravitygame.entities.PhysicsBody;
+import io.github.gravitygame.physics.BodyStore;
 import io.github.gravitygame.physics.GravityManager;
+import io.github.gravitygame.physics.NativeIntegrator;
+import io.github.gravitygame.utils.FlightEvents;
+import io.github.gravitygame.utils.Log;
+import io.github.gravitygame.utils.PerformanceMonitor;
+import io.github.gravitygame.utils.StateBuffer;
 import io.github.gravitygame.utils.WorldState;
 
 public class SimulationManager {
+    /**
+     * Integrates body motion. BOX2D steps the Box2D world; NATIVE advances the
+     * body store with {@link NativeIntegrator} and only mirrors the result into
+     * Box2D once per update. Fixtures are sensors either way, so Box2D never
+     * contributes collision response.
+     */
+    public enum Backend { BOX2D, NATIVE }
+
     private final World simulationWorld;
     private final Array<PhysicsBody> bodies = new Array<>();
-    private boolean isPaused = false;
+    // Primitive mirror of the bodies; handles are indices into the bodies array
+    private final BodyStore bodyStore = new BodyStore();
+    // Toggled from the UI while a simulation thread may be reading it
+    private volatile boolean isPaused = false;
     private float accumulatedTime = 0;
+    // Simulated seconds since the world was created; drives the gravity dance phase
+    private double simulationTime = 0;
     private static final float STEP_TIME = 1 / 60f;
+    // History steps re-simulated per update after an edit; a full window takes
+    // MAX_STATES * capture divisor / REBUILD_STEPS_PER_UPDATE frames
+    private static final int REBUILD_STEPS_PER_UPDATE = 25;
+    // Steps of the history window still to re-simulate after an edit
+    private int rebuildStepsRemaining = 0;
+    // Steps per captured frame in the timeline being re-simulated, fixed when it
+    // starts so it spaces its frames as the regular captures do
+    private int rebuildCaptureDivisor = 1;
+    // State the newest timeline was re-simulated from, for edits made before it is displayed
+    private final StateBuffer timelineStart = new StateBuffer(1, 1);
+    // Edits requested by the render thread, applied by the simulation thread
+    private final Queue<Runnable> pendingEdits = new ConcurrentLinkedQueue<>();
     private WorldStateManager worldStateManager;
+    private Backend backend = Backend.BOX2D;
+    private final NativeIntegrator nativeIntegrator = new NativeIntegrator();
+    private final PerformanceMonitor profiler = PerformanceMonitor.getInstance();
 
     public SimulationManager() {
         this.simulationWorld = new World(Vector2.Zero, false);
@@ -30,47 +65,132 @@ public class SimulationManager {
         this.worldStateManager = manager;
     }
 
+    /**
+     * Applies queued edits and advances the simulation. Call from a single
+     * thread, either the render thread or a {@link SimulationThread}.
+     */
     public void update(float delta) {
-        if (isPaused) {
-            return;
+        long start = profiler.begin();
+        long editsStart = profiler.begin();
+        applyPendingEdits();
+        profiler.end(PerformanceMonitor.Phase.EDITS, editsStart);
+        
+        // An edit's re-simulation runs before anything else, paused or not
+        if (rebuildStepsRemaining > 0) {
+            long rebuildStart = profiler.begin();
+            advanceRebuild(REBUILD_STEPS_PER_UPDATE);
+            profiler.end(PerformanceMonitor.Phase.REBUILD, rebuildStart);
+        } else if (!isPaused) {
+            accumulatedTime += delta;
+            while (accumulatedTime >= STEP_TIME) {
+                step(STEP_TIME);
+                accumulatedTime -= STEP_TIME;
+            }
+            syncBox2D();
+        }
+        profiler.end(PerformanceMonitor.Phase.SIMULATION, start);
+    }
+
+    /**
+     * Advances the simulation by one fixed step and leaves the body store holding
+     * the new positions and velocities.
+     */
+    private void step(float stepTime) {
+        Object event = FlightEvents.beginStep();
+        if (backend == Backend.NATIVE) {
+            long start = profiler.begin();
+            nativeIntegrator.step(bodyStore, simulationTime, stepTime);
+            profiler.end(PerformanceMonitor.Phase.NATIVE_STEP, start);
+        } else {
+            // Box2D is read once and written once per body; the gravity kernel
+            // only touches the body store
+            long start = profiler.begin();
+            GravityManager.updateGravity(bodyStore, simulationTime);
+            profiler.end(PerformanceMonitor.Phase.GRAVITY, start);
+            start = profiler.begin();
+            bodyStore.push(bodies);
+            simulationWorld.step(stepTime, 6, 2);
+            bodyStore.pull(bodies);
+            profiler.end(PerformanceMonitor.Phase.BOX2D_STEP, start);
+        }
+        simulationTime += stepTime;
+        int count = bodyStore.size();
+        boolean barnesHut = GravityManager.usesBarnesHut(count);
+        FlightEvents.endStep(event, backend.name(), count, barnesHut ? 0 : (long) count * (count - 1) / 2, barnesHut);
+    }
+
+    /**
+     * Mirrors the native integrator's results into the Box2D bodies, which are
+     * still used for picking and camera following.
+     */
+    private void syncBox2D() {
+        if (backend == Backend.NATIVE) {
+            bodyStore.writeBack(bodies);
         }
-        accumulatedTime += delta;
-        while (accumulatedTime >= STEP_TIME) {
-            GravityManager.updateGravity(bodies);
-            simulationWorld.step(STEP_TIME, 6, 2);
-            accumulatedTime -= STEP_TIME;
+    }
+
+    public void setBackend(Backend newBackend) {
+        if (newBackend == backend) return;
+        if (backend == Backend.NATIVE) {
+            bodyStore.writeBack(bodies);
+        } else {
+            bodyStore.pull(bodies);
         }
+        nativeIntegrator.invalidate();
+        backend = newBackend;
+        Log.info("Simulation Manager", "Backend set to " + backend);
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public void setIntegratorScheme(NativeIntegrator.Scheme scheme) {
+        nativeIntegrator.setScheme(scheme);
+        nativeIntegrator.invalidate();
     }
 
+    public NativeIntegrator.Scheme getIntegratorScheme() {
+        return nativeIntegrator.getScheme();
+    }
+
+    /**
+     * Adds a body at the displayed (oldest) state and re-simulates the history
+     * window from there. Call from the thread that owns the displayed history;
+     * the edit itself is applied at the start of the next update, on whichever
+     * thread runs the simulation. The re-simulation is spread over the next
+     * updates and the previous timeline stays on screen until it completes.
+     */
     public void addBody(float x, float y, float radius, Vector2 velocity, Color color) {
-        WorldState oldestState = worldStateManager.getOldestState();
-    
-        if (oldestState != null) {
-            // 1. Reset to oldest state
-            resetToState(oldestState);
+        final WorldState keyframe = copyDisplayedState();
+        final Vector2 initialVelocity = velocity.cpy();
+        final Color bodyColor = new Color(color);
+        pendingEdits.add(() -> applyAddBody(keyframe, x, y, radius, initialVelocity, bodyColor));
+    }
+
+    private void applyAddBody(WorldState displayed, float x, float y, float radius, Vector2 velocity, Color color) {
+        Object event = FlightEvents.beginEdit();
+        WorldState keyframe = resolveKeyframe(displayed);
     
-            // 2. Clear history
-            worldStateManager.clearHistory();
+        if (keyframe != null) {
+            // 1. Reset to the keyframe
+            resetToState(keyframe);
     
-            // 3. Add new body FIRST
-            PhysicsBody newBody = BodyFactory.createBody(
+            // 2. Add new body
+            bodies.add(BodyFactory.createBody(
                 simulationWorld,
                 velocity,
                 x, y,
                 radius,
                 calculateMass(radius),
                 color
-            );
-            bodies.add(newBody);
+            ));
+            bodyStore.load(bodies);
     
-            // 4. Fast-forward WITH new body
-            fastForwardToPresent();
-            
-            // 5. Notify the WorldStateManager about the new body
-            worldStateManager.bodyAdded();
+            // 3. Re-simulate the window WITH the new body
+            beginRebuild();
         } else {
             // Initial body case
-            // 4. Add new body
             PhysicsBody body = BodyFactory.createBody(
                 simulationWorld,
                 velocity,
@@ -80,13 +200,104 @@ public class SimulationManager {
                 color
             );
             bodies.add(body);
-            
-            // 5. Notify the WorldStateManager about the new body
-            worldStateManager.bodyAdded();
+            bodyStore.load(bodies);
+        }
+        
+        // 4. Notify the WorldStateManager about the new body
+        worldStateManager.bodyAdded();
+        FlightEvents.endEdit(event, "add", bodies.size, keyframe != null);
+    }
+
+    /**
+     * Adds many bodies as one edit. The displayed state is restored once, every
+     * body is created, and the history window is re-simulated a single time
+     * instead of once per body; with no history yet the bodies are placed
+     * directly. Positions, velocities, radii, masses and colours are taken from
+     * the given states, which are copied now; each body gets a new id.
+     */
+    public void addBodies(Array<BodyState> newBodies) {
+        if (newBodies.size == 0) return;
+        final WorldState keyframe = copyDisplayedState();
+        final Array<BodyState> added = new Array<>(newBodies.size);
+        for (BodyState body : newBodies) {
+            added.add(new BodyState(body));
+        }
+        pendingEdits.add(() -> applyAddBodies(keyframe, added));
+    }
+
+    private void applyAddBodies(WorldState displayed, Array<BodyState> added) {
+        Object event = FlightEvents.beginEdit();
+        WorldState keyframe = resolveKeyframe(displayed);
+        if (keyframe != null) {
+            resetToState(keyframe);
+        }
+
+        bodies.ensureCapacity(added.size);
+        for (BodyState body : added) {
+            Vector2 position = body.getPosition();
+            bodies.add(BodyFactory.createBody(
+                simulationWorld,
+                body.getVelocity(),
+                position.x, position.y,
+                body.getRadius(),
+                body.getMass(),
+                body.getColor()
+            ));
+        }
+        // One load for the whole batch rather than one per body
+        bodyStore.load(bodies);
+
+        // Every captured frame holds every body; warn before the history outgrows the heap
+        long historyBytes = WorldStateManager.estimateHistoryBytes(bodies.size);
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        if (historyBytes > maxHeap / 4 * 3) {
+            Log.info("Simulation Manager", "History for " + bodies.size + " bodies needs about "
+                + (historyBytes >> 20) + " MB of a " + (maxHeap >> 20) + " MB heap; raise -Xmx or load fewer bodies");
+        }
+
+        if (keyframe != null) {
+            beginRebuild();
+        }
+        worldStateManager.bodyAdded();
+        FlightEvents.endEdit(event, "add", bodies.size, keyframe != null);
+    }
+
+    private WorldState copyDisplayedState() {
+        WorldState displayed = worldStateManager.getOldestState();
+        return displayed != null ? displayed.copy() : null;
+    }
+
+    /**
+     * Picks the state an edit applies to. The displayed frame is used when it
+     * belongs to the newest timeline. If an earlier edit is still being
+     * re-simulated, or its timeline has not reached the display yet, the
+     * display is stale and the edit applies where that timeline starts instead,
+     * so the earlier edit is kept.
+     */
+    private WorldState resolveKeyframe(WorldState displayed) {
+        if (displayed != null && displayed.getGeneration() == worldStateManager.getGeneration()) {
+            return displayed;
+        }
+        return timelineStart.oldest();
+    }
+
+    private void applyPendingEdits() {
+        Runnable edit;
+        while ((edit = pendingEdits.poll()) != null) {
+            edit.run();
         }
     }
 
     public void resetToState(WorldState state) {
+        resetToState(state, -1);
+    }
+
+    /**
+     * Rebuilds the bodies and simulation clock from a stored frame, leaving out
+     * the body at {@code skipIndex} (or none when negative). Body ids are kept,
+     * so the restored bodies match the ones in the history.
+     */
+    private void resetToState(WorldState state, int skipIndex) {
         // Clear existing bodies
         for (PhysicsBody body : bodies) {
             simulationWorld.destroyBody(body.getBody());
@@ -94,34 +305,75 @@ public class SimulationManager {
         bodies.clear();
 
         // Restore bodies from saved state
-        for (BodyState bodyState : state.getBodyStates()) {
+        Vector2 velocity = new Vector2();
+        Color color = new Color();
+        for (int i = 0; i < state.size(); i++) {
+            if (i == skipIndex) continue;
             PhysicsBody body = BodyFactory.createBody(
                 simulationWorld,
-                bodyState.getVelocity(),
-                bodyState.getPosition().x, bodyState.getPosition().y,
-                bodyState.getRadius(),
-                bodyState.getMass(),
-                bodyState.getColor()
+                velocity.set(state.getVelocityX(i), state.getVelocityY(i)),
+                state.getX(i), state.getY(i),
+                state.getRadius(i),
+                state.getMass(i),
+                state.getColor(i, color),
+                state.getId(i)
             );
             bodies.add(body);
         }
+        bodyStore.load(bodies);
+        simulationTime = state.getTime();
+        nativeIntegrator.invalidate();
     }
 
-    private void fastForwardToPresent() {
+    /**
+     * Starts re-simulating the history window from the current state into a
+     * new timeline.
+     */
+    private void beginRebuild() {
         // Reset physics world time
-        pause();
         simulationWorld.step(0f, 0, 0);
-        // Simulate exactly 60 steps
-        for (int i = 0; i < WorldStateManager.MAX_STATES; i++) {
-            GravityManager.updateGravity(bodies);
-            simulationWorld.step(
-                WorldStateManager.CAPTURE_INTERVAL,
-                6,
-                2
-            );
-            worldStateManager.update(WorldStateManager.CAPTURE_INTERVAL); // Update the world state
+        int generation = worldStateManager.beginRebuild();
+        timelineStart.clear();
+        timelineStart.capture(bodyStore, simulationTime, generation);
+        rebuildCaptureDivisor = worldStateManager.getCaptureDivisor();
+        rebuildStepsRemaining = WorldStateManager.MAX_STATES * rebuildCaptureDivisor;
+    }
+
+    /**
+     * Re-simulates up to {@code maxSteps} history steps, capturing every
+     * capture-divisor-th one. The new timeline replaces the displayed one once
+     * the window is complete.
+     */
+    private void advanceRebuild(int maxSteps) {
+        int steps = Math.min(maxSteps, rebuildStepsRemaining);
+        for (int i = 0; i < steps; i++) {
+            step(WorldStateManager.CAPTURE_INTERVAL);
+            rebuildStepsRemaining--;
+            if (rebuildStepsRemaining % rebuildCaptureDivisor == 0) {
+                worldStateManager.captureRebuildState(rebuildStepsRemaining == 0);
+            }
+        }
+        
+        if (rebuildStepsRemaining == 0) {
+            syncBox2D();
+            accumulatedTime = 0f; // Reset physics timing
         }
-        resume();
+    }
+
+    /**
+     * Finishes any pending re-simulation synchronously. Call on the simulation thread.
+     */
+    public void fastForwardToPresent() {
+        if (rebuildStepsRemaining > 0) {
+            Object event = FlightEvents.beginFastForward();
+            int steps = rebuildStepsRemaining;
+            advanceRebuild(steps);
+            FlightEvents.endFastForward(event, steps);
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuildStepsRemaining > 0;
     }
 
     // Add this method to SimulationManager.java
@@ -138,57 +390,54 @@ public PhysicsBody findBodyAtPosition(Vector2 position) {
     return null;
 }
 
+    /**
+     * Removes a body at the displayed (oldest) state and re-simulates the
+     * history window without it, in the same way as {@link #addBody}.
+     */
     public void removeBody(UUID id) {
-        // Find the body to remove
-        PhysicsBody toRemove = null;
-        for (PhysicsBody body : bodies) {
-            if (body.getId().equals(id)) {
-                toRemove = body;
-                break;
-            }
-        }
+        final WorldState keyframe = copyDisplayedState();
+        pendingEdits.add(() -> applyRemoveBody(keyframe, id));
+    }
+
+    private void applyRemoveBody(WorldState displayed, UUID id) {
+        Object event = FlightEvents.beginEdit();
+        WorldState keyframe = resolveKeyframe(displayed);
         
-        if (toRemove != null) {
-            // 1. Pause the simulation
-            boolean wasPaused = isPaused;
-            pause();
-            
-            // 2. Remove the body from the physics world and our array
-            System.out.println("Removing body: " + toRemove.getId());
-            simulationWorld.destroyBody(toRemove.getBody());
-            bodies.removeValue(toRemove, true);
-            
-            // 3. Make the current state with remaining bodies the new simulation state
-            WorldState newCurrentState = new WorldState();
+        boolean removed = false;
+        if (keyframe != null) {
+            int index = keyframe.indexOf(id);
+            if (index >= 0) {
+                // 1. Reset to the keyframe without the body
+                Log.info("Simulation Manager", "Removing body: " + id);
+                resetToState(keyframe, index);
+                
+                // 2. Re-simulate the window without it
+                beginRebuild();
+                removed = true;
+            }
+        } else {
+            // No history yet: remove it from the live state directly
+            PhysicsBody toRemove = null;
             for (PhysicsBody body : bodies) {
-                newCurrentState.addBodyState(new BodyState(
-                    body.getPosition(),
-                    body.getVelocity(),
-                    body.getRadius(),
-                    body.getMass(),
-                    body.getColor(),
-                    body.getId()
-                ));
+                if (body.getId().equals(id)) {
+                    toRemove = body;
+                    break;
+                }
             }
-            
-            // 4. Clear the WorldStateManager's queue
-            worldStateManager.clearHistory();
-            
-            // 5. Start recalculating with the missing body
-            // First make sure we're in a stable state by using the current state
-            // No need to reset to state since we've just removed the body directly
-            // Generate trajectory from this point forward
-            // The fast-forward will populate the state queue with new trajectory data
-            fastForwardToPresent();
-            
-            // 6. Notify WorldStateManager about the removal
-            worldStateManager.bodyRemoved();
-            
-            // 7. Resume if it wasn't paused before
-            if (!wasPaused) {
-                resume();
+            if (toRemove != null) {
+                Log.info("Simulation Manager", "Removing body: " + toRemove.getId());
+                simulationWorld.destroyBody(toRemove.getBody());
+                bodies.removeValue(toRemove, true);
+                bodyStore.load(bodies);
+                removed = true;
             }
         }
+        
+        // 3. Notify WorldStateManager about the removal
+        if (removed) {
+            worldStateManager.bodyRemoved();
+        }
+        FlightEvents.endEdit(event, "remove", bodies.size, removed && keyframe != null);
     }
 
     public Array<PhysicsBody> captureWorldState() {
@@ -203,26 +452,31 @@ public PhysicsBody findBodyAtPosition(Vector2 position) {
         if (isPaused) {
             isPaused = false;
             accumulatedTime = 0f; // Reset physics timing
-            Gdx.app.log("Simulation Manager Resume", isPaused ? "Game Paused" : "Game Unpaused");
+            Log.info("Simulation Manager Resume", isPaused ? "Game Paused" : "Game Unpaused");
         }
     }
 
     public void pause() {
         isPaused = true;
-        Gdx.app.log("Simulation Manager Resume", isPaused ? "Game Paused" : "Game Unpaused");
+        Log.info("Simulation Manager Resume", isPaused ? "Game Paused" : "Game Unpaused");
     }
 
-    private float calculateMass(float radius) {
+    /**
+     * Mass given to a new body of this radius.
+     */
+    public static float calculateMass(float radius) {
         return (float) (Math.PI * radius * radius);
     }
 
     // Getters
     public World getWorld() { return this.simulationWorld; }
     public Array<PhysicsBody> getBodies() { return bodies; }
+    public BodyStore getBodyStore() { return bodyStore; }
+    public double getSimulationTime() { return simulationTime; }
     public boolean isPaused() { return isPaused; }
     public void togglePause() {
         isPaused = !isPaused;
-        Gdx.app.log("Simulation Manager", isPaused ? "Game Paused" : "Game Unpaused");
+        Log.info("Simulation Manager", isPaused ? "Game Paused" : "Game Unpaused");
     }
 
     public void dispose() { simulationWorld.dispose(); }
@@ -0,0 +1,118 @@
+package io.github.gravitygame.managers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import io.github.gravitygame.utils.Log;
+
+/**
+ * Runs the simulation and state capture at a fixed rate on a thread of its own,
+ * so simulation cost no longer comes out of the frame rate. Captured frames
+ * reach the render thread through the {@link WorldStateManager}'s frame ring,
+ * and edits travel the other way through the {@link SimulationManager}'s edit
+ * queue, so neither side takes a lock.
+ */
+public class SimulationThread implements Runnable {
+    // One capture per tick keeps capture timing independent of the frame rate
+    public static final float TICK_TIME = WorldStateManager.CAPTURE_INTERVAL;
+    private static final long TICK_NANOS = (long) (TICK_TIME * TimeUnit.SECONDS.toNanos(1));
+    // Lag after which the schedule is reset instead of running ticks back to back
+    private static final long MAX_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final SimulationManager simulationManager;
+    private final WorldStateManager worldStateManager;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    private Thread thread;
+
+    public SimulationThread(SimulationManager simulationManager, WorldStateManager worldStateManager) {
+        this.simulationManager = simulationManager;
+        this.worldStateManager = worldStateManager;
+    }
+
+    public void start() {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and waits for the current tick to finish.
+     */
+    public void stop() {
+        if (thread == null) return;
+        running = false;
+        // Also releases a capture waiting on a full frame ring
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Holds the loop between ticks, e.g. while the window is minimised and
+     * nothing drains the captured frames. A tick in progress finishes first.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        try {
+            while (running) {
+                if (paused) {
+                    LockSupport.park(this);
+                    // Pick up from now instead of catching up on the pause
+                    nextTick = System.nanoTime();
+                    continue;
+                }
+                tick();
+                nextTick += TICK_NANOS;
+
+                long now = System.nanoTime();
+                if (now - nextTick > MAX_LAG_NANOS) {
+                    // Fell too far behind; drop the backlog rather than spiral
+                    nextTick = now;
+                }
+                long wait;
+                while (running && !paused && (wait = nextTick - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        } catch (RuntimeException e) {
+            running = false;
+            Log.error("Simulation Thread", "Simulation stopped", e);
+        }
+    }
+
+    /**
+     * Advances the simulation and capture by one fixed tick.
+     */
+    public void tick() {
+        simulationManager.update(TICK_TIME);
+        worldStateManager.update(TICK_TIME);
+    }
+}
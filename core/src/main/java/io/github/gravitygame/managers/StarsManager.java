@@ -1,41 +1,116 @@
 package io.github.gravitygame.managers;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Disposable;
 
 import io.github.gravitygame.entities.Star;
+import io.github.gravitygame.utils.StarFieldMesh;
+
+/**
+ * Endless star background. Star space is split into square chunks whose stars
+ * follow from the chunk coordinates and a per-game seed, so a chunk looks the
+ * same every time it is generated. Chunks are generated on a worker thread,
+ * baked into a {@link StarFieldMesh} on the render thread, and evicted least
+ * recently drawn first once they exceed {@link #MEMORY_BUDGET}. The chunks
+ * the star camera is heading towards are requested ahead of time, so panning
+ * does not wait for generation.
+ */
+public class StarsManager implements Disposable {
+    // Side of a chunk, in star camera units
+    private static final float CHUNK_SIZE = 1024f;
+    // GPU memory the cached chunks may use, in bytes
+    private static final long MEMORY_BUDGET = 4L << 20;
+    // How far ahead of the star camera's motion chunks are requested
+    private static final float PREFETCH_SECONDS = 0.75f;
+    // Chunk uploads per frame, so a burst of finished chunks is spread out
+    private static final int MAX_UPLOADS_PER_FRAME = 4;
+    // Evicted meshes kept for reuse; every chunk has the same capacity
+    private static final int MAX_SPARE_MESHES = 8;
+
+    private static final class Chunk {
+        final StarFieldMesh mesh;
+        long lastDrawnFrame;
+
+        Chunk(StarFieldMesh mesh) {
+            this.mesh = mesh;
+        }
+    }
+
+    private static final class GeneratedChunk {
+        final long key;
+        final float[] vertices;
+
+        GeneratedChunk(long key, float[] vertices) {
+            this.key = key;
+            this.vertices = vertices;
+        }
+    }
+
+    private final long seed;
+    private final int starsPerChunk;
+    private final ShaderProgram shader;
+
+    // Render thread only; access order makes the eldest entry the least recently drawn
+    private final LinkedHashMap<Long, Chunk> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Long> requested = new HashSet<>();
+    private final ArrayDeque<StarFieldMesh> spareMeshes = new ArrayDeque<>();
+    private long memoryUsed = 0;
+    private long frame = 0;
+
+    private final ExecutorService generator;
+    private final ConcurrentLinkedQueue<GeneratedChunk> generated = new ConcurrentLinkedQueue<>();
 
-public class StarsManager {
-    private final List<Star> stars;
-    private final int numStars;
-    private final float width, height;
-    private final float cameraOffsetX, cameraOffsetY;
-    
     // A separate camera for the stars
     private final OrthographicCamera starCamera;
     // Factor to scale the zoom effect for the stars (0 means stars never zoom, 1 means same as simulation)
-    private final float starZoomFactor = 0.01f; 
+    private final float starZoomFactor = 0.01f;
     // Factor to scale the panning (parallax) effect for the stars (0 means stars never move, 1 means same as simulation)
-    private final float starPanFactor = 0.1f; 
+    private final float starPanFactor = 0.1f;
 
     // Store the initial simulation camera position (for parallax calculations)
     private final Vector2 initialCameraPosition;
-    
+    // Star camera motion, smoothed, in units per second
+    private final Vector2 lastStarPosition = new Vector2();
+    private final Vector2 velocity = new Vector2();
+    // Share of each chunk's stars drawn; chunks are in random order, so any prefix is an even sample
+    private float starFraction = 1f;
+
+    /**
+     * @param width Width of the area that held {@code numStars} stars; sets the density
+     * @param height Height of that area
+     */
     public StarsManager(float width, float height, int numStars, OrthographicCamera simulationCamera) {
-        this.width = width;
-        this.height = height;
-        this.numStars = numStars;
-        this.stars = new ArrayList<>();
+        this.seed = MathUtils.random.nextLong();
+        // The old fixed field drew its stars over twice its nominal size; keep its density
+        float density = numStars / (4 * width * height);
+        this.starsPerChunk = Math.min(StarFieldMesh.MAX_STARS,
+            Math.max(1, Math.round(density * CHUNK_SIZE * CHUNK_SIZE)));
+        this.shader = StarFieldMesh.createShader();
+        this.generator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Star Generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
         // Save the initial simulation camera position.
         this.initialCameraPosition = new Vector2(simulationCamera.position.x, simulationCamera.position.y);
-        this.cameraOffsetX = initialCameraPosition.x - width / 2;
-        this.cameraOffsetY = initialCameraPosition.y - height / 2;
-        
+        this.lastStarPosition.set(initialCameraPosition);
+
         // Initialize the star camera with the same viewport dimensions as the simulation camera.
         starCamera = new OrthographicCamera(simulationCamera.viewportWidth, simulationCamera.viewportHeight);
         // Start with the initial position.
@@ -43,45 +118,172 @@ public class StarsManager {
         // Set the star camera zoom to be less affected by the simulation zoom.
         starCamera.zoom = 1 + (simulationCamera.zoom - 1) * starZoomFactor;
         starCamera.update();
-        
-        generateStars();
     }
-    
-    private void generateStars() {
-        stars.clear();
-        for (int i = 0; i < numStars; i++) {
-            // Generate random star position within the defined area plus the camera offset.
-            float x = MathUtils.random(0, width) + cameraOffsetX;
-            float y = MathUtils.random(0, height) + cameraOffsetY;
-            // Use distance to simulate depth
-            float distance = MathUtils.random(50, 200);
-            stars.add(new Star(x, y, distance));
-        }
+
+    /**
+     * Draws only this share of the stars, from 0 to 1. Chunks keep all their
+     * stars, so raising it again needs no regeneration.
+     */
+    public void setStarFraction(float fraction) {
+        this.starFraction = MathUtils.clamp(fraction, 0f, 1f);
+    }
+
+    public float getStarFraction() {
+        return starFraction;
     }
-    
+
     /**
      * Renders the stars using the dedicated star camera.
      *
-     * @param renderer the ShapeRenderer used for drawing
      * @param simulationCamera the simulation camera to follow (for position and zoom)
      */
-    public void render(ShapeRenderer renderer, OrthographicCamera simulationCamera) {
+    public void render(OrthographicCamera simulationCamera) {
         // Calculate a parallax position: start from the initial position and add a fraction of the simulation camera's movement.
         float newX = initialCameraPosition.x + (simulationCamera.position.x - initialCameraPosition.x) * starPanFactor;
         float newY = initialCameraPosition.y + (simulationCamera.position.y - initialCameraPosition.y) * starPanFactor;
         starCamera.position.set(newX, newY, simulationCamera.position.z);
-        
+
         // Apply a reduced zoom effect for the star field.
         starCamera.zoom = 1 + (simulationCamera.zoom - 1) * starZoomFactor;
         starCamera.viewportWidth = simulationCamera.viewportWidth;
         starCamera.viewportHeight = simulationCamera.viewportHeight;
         starCamera.update();
-        
-        renderer.setProjectionMatrix(starCamera.combined);
-        renderer.begin(ShapeRenderer.ShapeType.Filled);
-        for (Star star : stars) {
-            star.render(renderer, star.getPosition().x, star.getPosition().y);
+
+        float delta = Gdx.graphics.getDeltaTime();
+        if (delta > 0) {
+            velocity.set(
+                MathUtils.lerp(velocity.x, (newX - lastStarPosition.x) / delta, 0.2f),
+                MathUtils.lerp(velocity.y, (newY - lastStarPosition.y) / delta, 0.2f)
+            );
+        }
+        lastStarPosition.set(newX, newY);
+        frame++;
+
+        uploadGenerated();
+
+        float halfWidth = starCamera.viewportWidth * starCamera.zoom / 2;
+        float halfHeight = starCamera.viewportHeight * starCamera.zoom / 2;
+        int x0 = chunkIndex(newX - halfWidth), x1 = chunkIndex(newX + halfWidth);
+        int y0 = chunkIndex(newY - halfHeight), y1 = chunkIndex(newY + halfHeight);
+        int screenWidth = Gdx.graphics.getWidth();
+        int stars = Math.round(starsPerChunk * starFraction);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                long key = key(cx, cy);
+                Chunk chunk = chunks.get(key);
+                if (chunk == null) {
+                    request(key);
+                } else {
+                    chunk.lastDrawnFrame = frame;
+                    chunk.mesh.render(starCamera.combined, screenWidth, stars);
+                }
+            }
+        }
+
+        // Ask for the chunks around where the view will be, one chunk beyond its edges
+        float aheadX = newX + velocity.x * PREFETCH_SECONDS;
+        float aheadY = newY + velocity.y * PREFETCH_SECONDS;
+        int ax0 = chunkIndex(aheadX - halfWidth) - 1, ax1 = chunkIndex(aheadX + halfWidth) + 1;
+        int ay0 = chunkIndex(aheadY - halfHeight) - 1, ay1 = chunkIndex(aheadY + halfHeight) + 1;
+        for (int cy = ay0; cy <= ay1; cy++) {
+            for (int cx = ax0; cx <= ax1; cx++) {
+                long key = key(cx, cy);
+                if (!chunks.containsKey(key)) {
+                    request(key);
+                }
+            }
+        }
+
+        evict();
+    }
+
+    private void request(long key) {
+        if (!requested.add(key)) return;
+        generator.execute(() -> generated.add(new GeneratedChunk(key, generate(key))));
+    }
+
+    /**
+     * Builds the vertex data of a chunk. Runs on the generator thread and
+     * depends only on the seed and the chunk coordinates.
+     */
+    private float[] generate(long key) {
+        int cx = (int) (key >> 32);
+        int cy = (int) key;
+        RandomXS128 random = new RandomXS128(seed ^ (cx * 0x9E3779B97F4A7C15L) ^ (cy * 0xC2B2AE3D27D4EB4FL));
+        float[] vertices = new float[starsPerChunk * StarFieldMesh.FLOATS_PER_STAR];
+        for (int i = 0; i < starsPerChunk; i++) {
+            float x = (cx + random.nextFloat()) * CHUNK_SIZE;
+            float y = (cy + random.nextFloat()) * CHUNK_SIZE;
+            // Use distance to simulate depth
+            float distance = 50 + random.nextFloat() * 150;
+            Star star = new Star(x, y, distance, random);
+            StarFieldMesh.writeStar(vertices, i, x, y, star.size, star.color);
+        }
+        return vertices;
+    }
+
+    /**
+     * Bakes a few finished chunks into meshes.
+     */
+    private void uploadGenerated() {
+        GeneratedChunk result;
+        for (int i = 0; i < MAX_UPLOADS_PER_FRAME && (result = generated.poll()) != null; i++) {
+            requested.remove(result.key);
+            StarFieldMesh mesh = spareMeshes.poll();
+            if (mesh == null) {
+                mesh = new StarFieldMesh(starsPerChunk, shader);
+            }
+            mesh.upload(result.vertices, starsPerChunk);
+            Chunk previous = chunks.put(result.key, new Chunk(mesh));
+            memoryUsed += mesh.byteSize();
+            if (previous != null) {
+                release(previous);
+            }
+        }
+    }
+
+    /**
+     * Drops the least recently drawn chunks while over budget. Chunks drawn
+     * this frame are never evicted.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Long, Chunk>> entries = chunks.entrySet().iterator();
+        while (memoryUsed > MEMORY_BUDGET && entries.hasNext()) {
+            Chunk chunk = entries.next().getValue();
+            if (chunk.lastDrawnFrame == frame) break;
+            entries.remove();
+            release(chunk);
+        }
+    }
+
+    private void release(Chunk chunk) {
+        memoryUsed -= chunk.mesh.byteSize();
+        if (spareMeshes.size() < MAX_SPARE_MESHES) {
+            spareMeshes.add(chunk.mesh);
+        } else {
+            chunk.mesh.dispose();
+        }
+    }
+
+    private static int chunkIndex(float coordinate) {
+        return MathUtils.floor(coordinate / CHUNK_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return (long) cx << 32 | (cy & 0xffffffffL);
+    }
+
+    @Override
+    public void dispose() {
+        generator.shutdownNow();
+        for (Chunk chunk : chunks.values()) {
+            chunk.mesh.dispose();
+        }
+        chunks.clear();
+        for (StarFieldMesh mesh : spareMeshes) {
+            mesh.dispose();
         }
-        renderer.end();
+        spareMeshes.clear();
+        shader.dispose();
     }
 }
@@ -13,7 +13,9 @@ import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Disposable;
 
 import io.github.gravitygame.entities.BodyCreationController;
+import io.github.gravitygame.physics.TrajectoryRenderer;
 import io.github.gravitygame.utils.PerformanceMonitor;
+import io.github.gravitygame.utils.PerformanceOverlay;
 
 public class UICreationManager implements Disposable {
     private static final String TAG = "UIManager";
@@ -26,11 +28,18 @@ public class UICreationManager implements Disposable {
     private final SimulationManager simulationManager;
     private final BodyCreationController bodyCreationController;
     private final CameraController cameraController;
+    private final TrajectoryRenderer trajectoryRenderer;
     
     // Performance monitoring
     private final PerformanceMonitor performanceMonitor;
+    private final WorldStateManager worldStateManager;
+    private PerformanceOverlay performanceOverlay;
+    private final QualityGovernor qualityGovernor;
     private Label fpsLabel;
     private Label frameTimeLabel;
+    private Label qualityLabel;
+    // Level shown by qualityLabel, so its text only changes with the level
+    private int shownQualityLevel = -1;
     
     // UI tables
     private Table controlsTable;
@@ -42,13 +51,18 @@ public class UICreationManager implements Disposable {
      * Constructor for UICreationManager
      */
     public UICreationManager(Stage stage, SimulationManager simulationManager, 
-                             BodyCreationController bodyCreationController, CameraController cameraController) {
+                             BodyCreationController bodyCreationController, CameraController cameraController,
+                             TrajectoryRenderer trajectoryRenderer, WorldStateManager worldStateManager,
+                             QualityGovernor qualityGovernor) {
         this.stage = stage;
         this.simulationManager = simulationManager;
         this.bodyCreationController = bodyCreationController;
         this.cameraController = cameraController;
+        this.trajectoryRenderer = trajectoryRenderer;
+        this.worldStateManager = worldStateManager;
+        this.qualityGovernor = qualityGovernor;
         this.skin = new Skin(Gdx.files.internal("skin/neon-ui.json"));
-        this.performanceMonitor = new PerformanceMonitor();
+        this.performanceMonitor = PerformanceMonitor.getInstance();
         
         // Initialize the SoundManager - this should be done early
         SoundManager.getInstance().initialize();
@@ -103,15 +117,26 @@ public class UICreationManager implements Disposable {
         // Create labels for FPS and Frame Time
         fpsLabel = new Label("FPS: 0", skin);
         frameTimeLabel = new Label("Frame Time: 0.0 ms", skin);
+        qualityLabel = new Label("Quality: " + qualityGovernor.getLevelName(), skin);
+        shownQualityLevel = qualityGovernor.getLevel();
         
         // Style the labels
         fpsLabel.setAlignment(Align.left);
         frameTimeLabel.setAlignment(Align.left);
+        qualityLabel.setAlignment(Align.left);
         
         // Add labels to the performance table
         performanceTable.add(fpsLabel).padTop(10).padLeft(10).left();
         performanceTable.row();
         performanceTable.add(frameTimeLabel).padTop(5).padLeft(10).left();
+        performanceTable.row();
+        performanceTable.add(qualityLabel).padTop(5).padLeft(10).left();
+
+        // Graphs, hidden until toggled from the controls
+        performanceOverlay = new PerformanceOverlay(performanceMonitor, worldStateManager, skin.getFont("font"));
+        performanceTable.row();
+        performanceTable.add(performanceOverlay).size(performanceOverlay.getWidth(), performanceOverlay.getHeight())
+            .padTop(10).padLeft(10).left();
     }
 
     /**
@@ -122,6 +147,8 @@ public class UICreationManager implements Disposable {
         TextButton pauseButton = createPauseButton();
         TextButton cameraModeButton = createCameraModeButton();
         TextButton createBodyButton = createCreateBodyButton();
+        TextButton trailModeButton = createTrailModeButton();
+        TextButton statsButton = createStatsButton();
         
         // Standard button configuration
         int buttonWidth = 200;
@@ -135,6 +162,10 @@ public class UICreationManager implements Disposable {
         controlsTable.row();
         controlsTable.add(createBodyButton).width(buttonWidth).height(buttonHeight).pad(buttonPadding);
         controlsTable.row();
+        controlsTable.add(trailModeButton).width(buttonWidth).height(buttonHeight).pad(buttonPadding);
+        controlsTable.row();
+        controlsTable.add(statsButton).width(buttonWidth).height(buttonHeight).pad(buttonPadding);
+        controlsTable.row();
         
         // Set up sound controls separately
         setupSoundControls(buttonWidth, buttonHeight, buttonPadding);
@@ -232,6 +263,42 @@ public class UICreationManager implements Disposable {
         return cameraModeButton;
     }
 
+    /**
+     * Create the Trail Mode toggle button
+     */
+    private TextButton createTrailModeButton() {
+        TextButton trailModeButton = new TextButton("Trails: Exact", skin);
+        trailModeButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundManager.getInstance().playClickSound();
+                TrajectoryRenderer.TrailMode newMode = (trajectoryRenderer.getTrailMode() == TrajectoryRenderer.TrailMode.EXACT)
+                        ? TrajectoryRenderer.TrailMode.ACCUMULATED
+                        : TrajectoryRenderer.TrailMode.EXACT;
+                trajectoryRenderer.setTrailMode(newMode);
+                trailModeButton.setText("Trails: " + (newMode == TrajectoryRenderer.TrailMode.EXACT ? "Exact" : "Fast"));
+            }
+        });
+        return trailModeButton;
+    }
+
+    /**
+     * Create the button that shows and hides the performance graphs
+     */
+    private TextButton createStatsButton() {
+        TextButton statsButton = new TextButton("Stats: Off", skin);
+        statsButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundManager.getInstance().playClickSound();
+                boolean visible = !performanceOverlay.isVisible();
+                performanceOverlay.setVisible(visible);
+                statsButton.setText("Stats: " + (visible ? "On" : "Off"));
+            }
+        });
+        return statsButton;
+    }
+
     /**
      * Create the Planet Creation toggle button
      */
@@ -257,11 +324,13 @@ public class UICreationManager implements Disposable {
      * Update performance metrics display
      */
     private void updatePerformanceMetrics() {
-        performanceMonitor.update();
-        
-        // Update labels with current metrics
+        // GameScreen ends each frame on the monitor; update labels with current metrics
         fpsLabel.setText(String.format("FPS: %.1f", performanceMonitor.getFPS()));
         frameTimeLabel.setText(String.format("Frame Time: %.2f ms", performanceMonitor.getAverageFrameTime()));
+        if (qualityGovernor.getLevel() != shownQualityLevel) {
+            shownQualityLevel = qualityGovernor.getLevel();
+            qualityLabel.setText("Quality: " + qualityGovernor.getLevelName());
+        }
     }
 
     /**
@@ -285,6 +354,7 @@ public class UICreationManager implements Disposable {
      */
     @Override
     public void dispose() {
+        performanceOverlay.dispose();
         skin.dispose();
         SoundManager.getInstance().dispose();
     }
@@ -1,57 +1,87 @@
 package io.github.gravitygame.managers;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 import com.badlogic.gdx.utils.Array;
 
-import io.github.gravitygame.entities.BodyState;
-import io.github.gravitygame.entities.PhysicsBody;
+import io.github.gravitygame.physics.BodyStore;
+import io.github.gravitygame.utils.FlightEvents;
+import io.github.gravitygame.utils.FrameRing;
+import io.github.gravitygame.utils.PerformanceMonitor;
+import io.github.gravitygame.utils.StateBuffer;
 import io.github.gravitygame.utils.WorldState;
 
+/**
+ * Records the simulation as a history of snapshots. Capturing runs on the
+ * thread that advances the simulation and publishes frames through a
+ * {@link FrameRing}; the history itself belongs to the render thread, which
+ * pulls new frames in with {@link #drainFrames()}. When the simulation runs on
+ * the render thread the same calls simply happen in sequence.
+ */
 public class WorldStateManager {
-    private final Queue<WorldState> stateQueue = new LinkedList<>();
-    private SimulationManager simulationManager;
-    private float timeSinceLastCapture = 0;
+    /**
+     * Follows changes to the displayed history, so derived data can be kept up
+     * to date incrementally. Called on the render thread.
+     */
+    public interface HistoryListener {
+        /** A state was appended as the most recent one. */
+        void stateAdded(WorldState state);
+
+        /** The oldest state was removed. */
+        void oldestStateRemoved();
+
+        /** The whole history was replaced or cleared; re-read it with getState. */
+        void historyReset();
+    }
+
     public static final float CAPTURE_INTERVAL = 0.01f;
     public static final int MAX_STATES = 200;
+    // Bodies each history frame holds before the buffer has to grow
+    private static final int INITIAL_BODY_CAPACITY = 64;
+    // Frames in flight between the threads; holds a full re-simulated window
+    // plus a margin, so a single thread can fast-forward before draining
+    private static final int FRAME_RING_CAPACITY = MAX_STATES + 64;
+    // Frames of every body held at once: the history, a timeline being
+    // received and the frames in flight. Nothing caps the body count, so this
+    // sets the memory ceiling: about 21 MB per thousand bodies
+    public static final int FRAMES_HELD = 2 * MAX_STATES + FRAME_RING_CAPACITY;
 
-    // Pointers to the most recent and the oldest states
-    private WorldState mostRecentState;
-    private WorldState oldestState;
+    private final FrameRing frames = new FrameRing(FRAME_RING_CAPACITY, INITIAL_BODY_CAPACITY);
+
+    // Simulation side
+    private SimulationManager simulationManager;
+    private float timeSinceLastCapture = 0;
+    // Regular captures happen every this many capture intervals; set from the render thread
+    private volatile int captureDivisor = 1;
+    // Timeline being captured; every edit starts a new one
+    private int generation = 0;
+    private boolean rebuilding = false;
+    private int rebuildFlags = 0;
+    private final PerformanceMonitor profiler = PerformanceMonitor.getInstance();
+
+    // Render side. Ring of the last MAX_STATES snapshots, oldest first. Every
+    // frame carries the simulation clock, so each one is a keyframe an edit can
+    // restart from
+    private StateBuffer history = new StateBuffer(MAX_STATES, INITIAL_BODY_CAPACITY);
+    // Receives the re-simulated timeline after an edit while history stays on screen
+    private StateBuffer rebuildBuffer = new StateBuffer(MAX_STATES, INITIAL_BODY_CAPACITY);
+    private boolean receivingRebuild = false;
+    private final Array<HistoryListener> listeners = new Array<>();
     
     // Add a processing flag to ensure we rotate through states
     private boolean processStates = true;
     
-    // Add a flag to pause cycling after adding a new body
-    private float stabilizationDelay = 0f;
+    // Add a flag to pause cycling after adding a new body; set by the
+    // simulation side and read by the renderers
+    private volatile float stabilizationDelay = 0f;
     private static final float STABILIZATION_TIME = 0f; // Delay
     public void setSimulationManager(SimulationManager manager) {
         this.simulationManager = manager;
     }
 
     /**
-     * Creates a snapshot of the current world state by converting each PhysicsBody
-     * into an immutable BodyState.
-     *
-     * @param bodies The current simulation bodies.
-     * @return A WorldState containing a snapshot of each body's state.
-     */
-    private WorldState createWorldState(Array<PhysicsBody> bodies) {
-        WorldState state = new WorldState();
-        for (PhysicsBody body : bodies) {
-            state.addBodyState(new BodyState(
-                body.getPosition(),
-                body.getVelocity(),
-                body.getRadius(),
-                body.getMass(),
-                body.getColor(),
-                body.getId()
-            ));
-        }
-        return state;
-    }
-
+     * Advances the capture timer and publishes a snapshot every CAPTURE_INTERVAL
+     * times the capture divisor.
+     * Call on the thread that updates the simulation.
+     */
     public void update(float delta) {
         if (simulationManager == null) return;
         
@@ -60,49 +90,167 @@ public class WorldStateManager {
             stabilizationDelay -= delta;
         }
 
+        // The simulation is busy re-simulating a replacement timeline
+        if (rebuilding) return;
+
         timeSinceLastCapture += delta;
 
-        // Always capture states at regular intervals, even when paused
-        if (timeSinceLastCapture >= CAPTURE_INTERVAL) {
-            WorldState newState = createWorldState(simulationManager.getBodies());
-            saveState(newState);
+        // Always capture states at regular intervals, even when paused. Half an
+        // interval of slack keeps the summed float ticks from missing one
+        if (timeSinceLastCapture >= CAPTURE_INTERVAL * captureDivisor - CAPTURE_INTERVAL / 2) {
+            saveState();
             timeSinceLastCapture = 0; // Reset timer
         }
     }
 
     /**
-     * Saves a new WorldState snapshot, maintaining only the last 'MAX_STATES' states.
-     * @param state The WorldState snapshot to store.
+     * Captures only every {@code divisor}-th interval, which spreads the
+     * history over a longer time and makes capturing, trails and collision
+     * checks cheaper. Timelines re-simulated after an edit are captured with
+     * the divisor in effect when they start, so the history keeps one spacing.
+     */
+    public void setCaptureDivisor(int divisor) {
+        this.captureDivisor = Math.max(1, divisor);
+    }
+
+    public int getCaptureDivisor() {
+        return captureDivisor;
+    }
+
+    /**
+     * Publishes the body store as the next history frame. Positions and
+     * velocities come from the body store, which is current for every
+     * simulation backend.
      */
-    private void saveState(WorldState state) {
-        // Add the new state
-        stateQueue.offer(state);
-        mostRecentState = state; // Update most recent state pointer
+    private void saveState() {
+        long start = profiler.begin();
+        Object event = FlightEvents.beginCapture();
+        BodyStore store = simulationManager.getBodyStore();
+        frames.publish(store, simulationManager.getSimulationTime(), generation, 0);
+        FlightEvents.endCapture(event, store.size());
+        profiler.end(PerformanceMonitor.Phase.CAPTURE, start);
+    }
 
-        // Update the oldest state if the queue was empty
-        if (stateQueue.size() == 1) {
-            oldestState = state;
+    /**
+     * Starts a replacement timeline after an edit. Until its last frame arrives
+     * the current history keeps being displayed and no regular captures are taken.
+     *
+     * @return The new timeline's generation
+     */
+    public int beginRebuild() {
+        generation++;
+        rebuilding = true;
+        rebuildFlags = FrameRing.TIMELINE_START;
+        return generation;
+    }
+
+    /**
+     * Publishes the simulation's current state as the next frame of the
+     * replacement timeline.
+     *
+     * @param last Whether this frame completes the timeline
+     */
+    public void captureRebuildState(boolean last) {
+        int flags = rebuildFlags | (last ? FrameRing.TIMELINE_END : 0);
+        frames.publish(simulationManager.getBodyStore(), simulationManager.getSimulationTime(), generation, flags);
+        rebuildFlags = 0;
+        if (last) {
+            rebuilding = false;
+            timeSinceLastCapture = 0;
         }
-        
-        // Remove oldest state if queue is too large
-        if (stateQueue.size() > MAX_STATES) {
-            stateQueue.poll();
-            if (!stateQueue.isEmpty()) {
-                oldestState = stateQueue.peek();
+    }
+
+    /**
+     * Timeline currently being captured. Frames with an older generation were
+     * superseded by a later edit.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    /**
+     * Moves every published frame into the history. A re-simulated timeline is
+     * collected separately and swapped in once complete. Call on the render
+     * thread before reading states.
+     */
+    public void drainFrames() {
+        WorldState frame;
+        while ((frame = frames.peek()) != null) {
+            int flags = frames.peekFlags();
+            if ((flags & FrameRing.TIMELINE_START) != 0) {
+                // A newer edit restarts any timeline still being received
+                rebuildBuffer.clear();
+                receivingRebuild = true;
             }
+            if (receivingRebuild) {
+                rebuildBuffer.capture(frame);
+                if ((flags & FrameRing.TIMELINE_END) != 0) {
+                    StateBuffer previous = history;
+                    history = rebuildBuffer;
+                    rebuildBuffer = previous;
+                    rebuildBuffer.clear();
+                    receivingRebuild = false;
+                    notifyReset();
+                }
+            } else {
+                if (history.size() == MAX_STATES) {
+                    notifyOldestRemoved();
+                }
+                notifyAdded(history.capture(frame));
+            }
+            frames.release();
+        }
+    }
+
+    public void addHistoryListener(HistoryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeHistoryListener(HistoryListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    private void notifyAdded(WorldState state) {
+        for (int i = 0; i < listeners.size; i++) {
+            listeners.get(i).stateAdded(state);
+        }
+    }
+
+    private void notifyOldestRemoved() {
+        for (int i = 0; i < listeners.size; i++) {
+            listeners.get(i).oldestStateRemoved();
+        }
+    }
+
+    private void notifyReset() {
+        for (int i = 0; i < listeners.size; i++) {
+            listeners.get(i).historyReset();
         }
     }
 
     public float getTimeToFillQueue() {
-        return MAX_STATES * CAPTURE_INTERVAL;
+        return MAX_STATES * CAPTURE_INTERVAL * captureDivisor;
     }
 
     public WorldState getOldestState() {
-        return oldestState; // Return the pointer to the oldest state
+        return history.oldest();
     }
 
     public WorldState getMostRecentState() {
-        return mostRecentState; // Return the pointer to the most recent state
+        return history.newest();
+    }
+
+    /**
+     * Returns a stored snapshot by age: 0 is the oldest (displayed) state and
+     * {@code getHistorySize() - 1} the most recent. The returned view is reused
+     * by later frames, so read it before the next drain.
+     */
+    public WorldState getState(int index) {
+        return history.get(index);
     }
 
     /**
@@ -115,16 +263,27 @@ public class WorldStateManager {
             return false;
         }
         
-        if (!stateQueue.isEmpty() && stateQueue.size() > 1) {
-            // Move the oldest state to the back of the queue
-            WorldState oldest = stateQueue.poll();
-            // Only do this if we have enough states to maintain a good visual
-            if (stateQueue.size() >= 5) {
-                oldestState = stateQueue.peek(); // Update pointer to the new oldest state
+        Object event = FlightEvents.beginCycle();
+        boolean cycled = cycleHistory();
+        FlightEvents.endCycle(event, history.size(), cycled);
+        return cycled;
+    }
+
+    /**
+     * Drops the oldest state, or moves it to the back while the history is short.
+     */
+    private boolean cycleHistory() {
+        if (history.size() > 1) {
+            // Only drop the oldest state if we have enough states to maintain a good visual
+            if (history.size() - 1 >= 5) {
+                history.dropOldest();
+                notifyOldestRemoved();
                 return true;
             } else {
-                // Put it back if we don't have enough states
-                stateQueue.offer(oldest);
+                // Move it to the back instead if we don't have enough states
+                history.rotateOldest();
+                notifyOldestRemoved();
+                notifyAdded(history.newest());
             }
         }
         return false;
@@ -144,34 +303,40 @@ public class WorldStateManager {
         this.processStates = enabled;
     }
 
-    /**
-     * Makes a copy of the current state.
-     */
-    public WorldState copyCurrentState() {
-        return mostRecentState != null ? new WorldState(mostRecentState) : null;
-    }
-
     /**
      * Clears the history of states.
      */
     public void clearHistory() {
-        stateQueue.clear();
-        mostRecentState = null;
-        oldestState = null;
+        history.clear();
+        notifyReset();
         stabilizationDelay = 0f;
     }
 
+    /**
+     * Call this when a body is removed to prevent immediate cycling
+     */
     public void bodyRemoved() {
-        // Clear history and start capturing new states
-        clearHistory();
+        stabilizationDelay = STABILIZATION_TIME;
     }
 
-    public Queue<WorldState> getHistoryQueue() {
-        return stateQueue; 
+    public int getHistorySize() {
+        return history.size();
     }
 
-    public int getHistorySize() {
-        return stateQueue.size();
+    /**
+     * Approximate heap held by the history, the timeline being received and
+     * the frames in flight, in bytes. Call on the render thread.
+     */
+    public long getHistoryBytes() {
+        return history.byteSize() + rebuildBuffer.byteSize() + frames.byteSize();
+    }
+
+    /**
+     * Heap the history grows to once every frame it holds has {@code bodies}
+     * bodies, in bytes.
+     */
+    public static long estimateHistoryBytes(int bodies) {
+        return (long) FRAMES_HELD * bodies * StateBuffer.bytesPerBody();
     }
     
     public boolean isStabilizing() {
@@ -0,0 +1,294 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Array-backed quadtree used by the Barnes-Hut gravity solver.
+ * The tree is rebuilt every step from primitive body arrays; node storage is
+ * reused between builds so steady-state stepping allocates nothing.
+ */
+public final class BarnesHutTree {
+    // Cells are never split below this depth; coincident bodies share one leaf instead
+    private static final int MAX_DEPTH = 24;
+
+    // Per-node geometry
+    private float[] centerX = new float[0];
+    private float[] centerY = new float[0];
+    private float[] halfSize = new float[0];
+
+    // Per-node aggregates (mass, centre of mass, mass-weighted mean velocity)
+    private float[] mass = new float[0];
+    private float[] comX = new float[0];
+    private float[] comY = new float[0];
+    private float[] velX = new float[0];
+    private float[] velY = new float[0];
+
+    // Index of the first of four consecutive children, or -1 for a leaf
+    private int[] firstChild = new int[0];
+    // First body stored in a leaf, or -1 when empty
+    private int[] leafBody = new int[0];
+    // Next body in the same leaf (only used for coincident bodies at MAX_DEPTH)
+    private int[] nextBody = new int[0];
+
+    // Traversal scratch for single-threaded callers
+    private final Walker walker = new Walker();
+    private int nodeCount = 0;
+
+    // Body data of the last build
+    private float[] x, y, vx, vy, m;
+    private int bodyCount;
+
+    /**
+     * Rebuilds the tree over the first {@code count} entries of the given arrays.
+     */
+    public void build(float[] x, float[] y, float[] vx, float[] vy, float[] m, int count) {
+        this.x = x;
+        this.y = y;
+        this.vx = vx;
+        this.vy = vy;
+        this.m = m;
+        this.bodyCount = count;
+
+        nodeCount = 0;
+        if (count == 0) return;
+
+        if (nextBody.length < count) {
+            nextBody = new int[count];
+        }
+
+        // Square root cell enclosing every body
+        float minX = x[0], maxX = x[0], minY = y[0], maxY = y[0];
+        for (int i = 1; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        float half = Math.max(maxX - minX, maxY - minY) * 0.5f * 1.001f + 1f;
+        newNode((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, half);
+
+        for (int i = 0; i < count; i++) {
+            insert(i);
+        }
+        computeAggregates();
+    }
+
+    /**
+     * Per-thread traversal scratch. The tree itself is read-only once built,
+     * so any number of threads may walk it, each with its own walker.
+     */
+    public static final class Walker {
+        private int[] stack = new int[64];
+        private final float[] pair = new float[2];
+    }
+
+    /**
+     * Adds the approximate force on body {@code i} from every other body to
+     * {@code fx[i]} and {@code fy[i]}.
+     *
+     * @param theta Opening angle; cells with size / distance below it are treated as one body
+     * @param phase Time phase of the "dance" pulse, shared by the whole step
+     */
+    public void accumulate(int i, float theta, double phase, float[] fx, float[] fy) {
+        accumulate(i, theta, phase, fx, fy, walker);
+    }
+
+    /**
+     * Same as {@link #accumulate(int, float, double, float[], float[])} using the
+     * caller's walker, for concurrent traversals. Cells are visited in a fixed
+     * order, so the result does not depend on which thread runs the walk.
+     */
+    public void accumulate(int i, float theta, double phase, float[] fx, float[] fy, Walker walker) {
+        if (nodeCount == 0) return;
+
+        float xi = x[i], yi = y[i], vxi = vx[i], vyi = vy[i], mi = m[i];
+        float theta2 = theta * theta;
+        float[] out = walker.pair;
+        int[] stack = walker.stack;
+        float sumX = 0, sumY = 0;
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (mass[node] <= 0) continue;
+
+            int child = firstChild[node];
+            if (child < 0) {
+                // Leaf: exact interaction with every body it holds
+                for (int b = leafBody[node]; b >= 0; b = nextBody[b]) {
+                    if (b == i) continue;
+                    GravityManager.pairForce(xi, yi, vxi, vyi, mi, x[b], y[b], vx[b], vy[b], m[b], phase, out);
+                    sumX += out[0];
+                    sumY += out[1];
+                }
+                continue;
+            }
+
+            float dx = comX[node] - xi;
+            float dy = comY[node] - yi;
+            float size = halfSize[node] * 2f;
+            if (size * size < theta2 * (dx * dx + dy * dy) && !contains(node, xi, yi)) {
+                // Far enough away: interact with the cell's aggregate
+                GravityManager.pairForce(xi, yi, vxi, vyi, mi, comX[node], comY[node], velX[node], velY[node], mass[node], phase, out);
+                sumX += out[0];
+                sumY += out[1];
+                continue;
+            }
+
+            if (top + 4 > stack.length) {
+                int[] grown = new int[stack.length * 2];
+                System.arraycopy(stack, 0, grown, 0, top);
+                stack = grown;
+                walker.stack = grown;
+            }
+            stack[top++] = child;
+            stack[top++] = child + 1;
+            stack[top++] = child + 2;
+            stack[top++] = child + 3;
+        }
+
+        fx[i] += sumX;
+        fy[i] += sumY;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    private void insert(int i) {
+        float bx = x[i], by = y[i];
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            int child = firstChild[node];
+            if (child >= 0) {
+                node = child + quadrant(node, bx, by);
+                depth++;
+                continue;
+            }
+            if (leafBody[node] < 0) {
+                leafBody[node] = i;
+                nextBody[i] = -1;
+                return;
+            }
+            if (depth >= MAX_DEPTH) {
+                // Practically coincident bodies share the leaf
+                nextBody[i] = leafBody[node];
+                leafBody[node] = i;
+                return;
+            }
+
+            // Split the leaf and push its single occupant one level down
+            int existing = leafBody[node];
+            leafBody[node] = -1;
+            subdivide(node);
+            int target = firstChild[node] + quadrant(node, x[existing], y[existing]);
+            leafBody[target] = existing;
+        }
+    }
+
+    private void subdivide(int node) {
+        float quarter = halfSize[node] * 0.5f;
+        float cx = centerX[node], cy = centerY[node];
+        // Nodes may be reallocated by newNode, so read the parent geometry first
+        int first = newNode(cx - quarter, cy - quarter, quarter);
+        newNode(cx + quarter, cy - quarter, quarter);
+        newNode(cx - quarter, cy + quarter, quarter);
+        newNode(cx + quarter, cy + quarter, quarter);
+        firstChild[node] = first;
+    }
+
+    private int quadrant(int node, float px, float py) {
+        int q = 0;
+        if (px >= centerX[node]) q |= 1;
+        if (py >= centerY[node]) q |= 2;
+        return q;
+    }
+
+    private boolean contains(int node, float px, float py) {
+        float h = halfSize[node];
+        return Math.abs(px - centerX[node]) <= h && Math.abs(py - centerY[node]) <= h;
+    }
+
+    /**
+     * Children are always allocated after their parent, so a reverse sweep
+     * visits every child before the node that owns it.
+     */
+    private void computeAggregates() {
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            float sumM = 0, sumX = 0, sumY = 0, sumVX = 0, sumVY = 0;
+            int child = firstChild[node];
+            if (child < 0) {
+                for (int b = leafBody[node]; b >= 0; b = nextBody[b]) {
+                    float bm = m[b];
+                    sumM += bm;
+                    sumX += bm * x[b];
+                    sumY += bm * y[b];
+                    sumVX += bm * vx[b];
+                    sumVY += bm * vy[b];
+                }
+            } else {
+                for (int c = child; c < child + 4; c++) {
+                    float cm = mass[c];
+                    if (cm <= 0) continue;
+                    sumM += cm;
+                    sumX += cm * comX[c];
+                    sumY += cm * comY[c];
+                    sumVX += cm * velX[c];
+                    sumVY += cm * velY[c];
+                }
+            }
+
+            mass[node] = sumM;
+            if (sumM > 0) {
+                float inv = 1f / sumM;
+                comX[node] = sumX * inv;
+                comY[node] = sumY * inv;
+                velX[node] = sumVX * inv;
+                velY[node] = sumVY * inv;
+            }
+        }
+    }
+
+    private int newNode(float cx, float cy, float half) {
+        if (nodeCount == centerX.length) {
+            grow(Math.max(64, nodeCount * 2));
+        }
+        int node = nodeCount++;
+        centerX[node] = cx;
+        centerY[node] = cy;
+        halfSize[node] = half;
+        mass[node] = 0;
+        firstChild[node] = -1;
+        leafBody[node] = -1;
+        return node;
+    }
+
+    private void grow(int capacity) {
+        centerX = copyOf(centerX, capacity);
+        centerY = copyOf(centerY, capacity);
+        halfSize = copyOf(halfSize, capacity);
+        mass = copyOf(mass, capacity);
+        comX = copyOf(comX, capacity);
+        comY = copyOf(comY, capacity);
+        velX = copyOf(velX, capacity);
+        velY = copyOf(velY, capacity);
+
+        int[] grownChildren = new int[capacity];
+        System.arraycopy(firstChild, 0, grownChildren, 0, firstChild.length);
+        firstChild = grownChildren;
+
+        int[] grownBodies = new int[capacity];
+        System.arraycopy(leafBody, 0, grownBodies, 0, leafBody.length);
+        leafBody = grownBodies;
+    }
+
+    private static float[] copyOf(float[] source, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(source, 0, copy, 0, source.length);
+        return copy;
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Hierarchical block timestepping on top of kick-drift-kick leapfrog.
+ * Each body advances with the base step divided by a power of two (its level),
+ * chosen from its acceleration and jerk. All bodies drift together, but only
+ * the bodies whose step ends at a sub-step have their forces recomputed.
+ */
+public final class BlockTimestepper {
+    // Deepest subdivision of the base step (2^MAX_LEVEL sub-steps)
+    public static final int MAX_LEVEL = 6;
+
+    // Accuracy parameters for the acceleration and jerk criteria
+    private static final float ETA_ACCELERATION = 0.025f;
+    private static final float ETA_JERK = 0.02f;
+
+    // Length scale for the acceleration criterion; matches the force softening
+    private static final float SOFTENING = 15.0f;
+
+    private int[] level = new int[0];
+    private int[] nextTick = new int[0];
+    private float[] accelX = new float[0];
+    private float[] accelY = new float[0];
+    private int[] active = new int[0];
+
+    private int storeGeneration = -1;
+    private boolean initialized = false;
+
+    // Statistics of the last step
+    private int lastForceEvaluations = 0;
+    private int lastSubSteps = 0;
+
+    /**
+     * Drops cached accelerations and levels. Call after positions or velocities
+     * are changed from outside the integrator.
+     */
+    public void invalidate() {
+        initialized = false;
+    }
+
+    /**
+     * Advances every body in the store by the base step {@code dt}.
+     *
+     * @param time Simulation time at the start of the step
+     */
+    public void step(BodyStore store, double time, float dt) {
+        int count = store.count;
+        if (store.getGeneration() != storeGeneration || level.length < count) {
+            storeGeneration = store.getGeneration();
+            ensureCapacity(count);
+            initialized = false;
+        }
+
+        lastForceEvaluations = 0;
+        lastSubSteps = 0;
+        if (count == 0) return;
+
+        int ticks = 1 << MAX_LEVEL;
+        float tickDt = dt / ticks;
+
+        if (!initialized) {
+            // Everybody is due: evaluate forces and pick levels without jerk information
+            for (int i = 0; i < count; i++) {
+                active[i] = i;
+            }
+            GravityManager.computeForces(store, time, active, count);
+            lastForceEvaluations += count;
+            for (int i = 0; i < count; i++) {
+                accelX[i] = store.fx[i] * store.inverseMass[i];
+                accelY[i] = store.fy[i] * store.inverseMass[i];
+                level[i] = chooseLevel(accelX[i], accelY[i], 0f, dt);
+            }
+            initialized = true;
+        }
+
+        // Every step size divides the base step, so all bodies start synchronised
+        for (int i = 0; i < count; i++) {
+            int stepTicks = ticks >> level[i];
+            kick(store, i, 0.5f * stepTicks * tickDt);
+            nextTick[i] = stepTicks;
+        }
+
+        int tick = 0;
+        while (tick < ticks) {
+            int next = ticks;
+            for (int i = 0; i < count; i++) {
+                next = Math.min(next, nextTick[i]);
+            }
+
+            drift(store, (next - tick) * tickDt);
+            tick = next;
+            lastSubSteps++;
+
+            int activeCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (nextTick[i] == tick) {
+                    active[activeCount++] = i;
+                }
+            }
+            GravityManager.computeForces(store, time + tick * tickDt, active, activeCount);
+            lastForceEvaluations += activeCount;
+
+            for (int k = 0; k < activeCount; k++) {
+                int i = active[k];
+                float stepDt = (ticks >> level[i]) * tickDt;
+                float newAx = store.fx[i] * store.inverseMass[i];
+                float newAy = store.fy[i] * store.inverseMass[i];
+                float jerk = (float) Math.sqrt(sq(newAx - accelX[i]) + sq(newAy - accelY[i])) / stepDt;
+                accelX[i] = newAx;
+                accelY[i] = newAy;
+
+                // Closing half kick of the finished step
+                kick(store, i, 0.5f * stepDt);
+                limitTranslation(store, i, stepDt);
+
+                int newLevel = chooseLevel(newAx, newAy, jerk, dt);
+                // A longer step may only start on a tick it is aligned to
+                while (newLevel < level[i] && tick % (ticks >> newLevel) != 0) {
+                    newLevel++;
+                }
+                level[i] = newLevel;
+
+                if (tick < ticks) {
+                    // Opening half kick of the next step
+                    int stepTicks = ticks >> newLevel;
+                    kick(store, i, 0.5f * stepTicks * tickDt);
+                    nextTick[i] = tick + stepTicks;
+                }
+            }
+        }
+    }
+
+    public int getLevel(int handle) {
+        return level[handle];
+    }
+
+    /**
+     * @return Number of single-body force evaluations in the last step
+     */
+    public int getLastForceEvaluations() {
+        return lastForceEvaluations;
+    }
+
+    /**
+     * @return Number of sub-steps with at least one active body in the last step
+     */
+    public int getLastSubSteps() {
+        return lastSubSteps;
+    }
+
+    private static int chooseLevel(float ax, float ay, float jerk, float baseDt) {
+        float accel = (float) Math.sqrt(ax * ax + ay * ay);
+        float dt = baseDt;
+        if (accel > 0) {
+            dt = Math.min(dt, (float) Math.sqrt(2f * ETA_ACCELERATION * SOFTENING / accel));
+            if (jerk > 0) {
+                dt = Math.min(dt, ETA_JERK * accel / jerk);
+            }
+        }
+
+        int newLevel = 0;
+        while (newLevel < MAX_LEVEL && baseDt / (1 << newLevel) > dt) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+
+    private static void kick(BodyStore store, int i, float dt) {
+        float scale = store.inverseMass[i] * dt;
+        store.vx[i] += store.fx[i] * scale;
+        store.vy[i] += store.fy[i] * scale;
+    }
+
+    /**
+     * Box2D's translation cap, applied per body with its own step, so finer
+     * levels also allow the faster motion of close encounters.
+     */
+    private static void limitTranslation(BodyStore store, int i, float stepDt) {
+        float maxSpeed = NativeIntegrator.MAX_TRANSLATION / stepDt;
+        float speed2 = sq(store.vx[i]) + sq(store.vy[i]);
+        if (speed2 > maxSpeed * maxSpeed) {
+            float scale = maxSpeed / (float) Math.sqrt(speed2);
+            store.vx[i] *= scale;
+            store.vy[i] *= scale;
+        }
+    }
+
+    private static void drift(BodyStore store, float dt) {
+        float[] x = store.x, y = store.y, vx = store.vx, vy = store.vy;
+        for (int i = 0; i < store.count; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+    }
+
+    private static float sq(float value) {
+        return value * value;
+    }
+
+    private void ensureCapacity(int count) {
+        if (level.length >= count) return;
+        int size = Math.max(count, level.length * 2);
+        level = new int[size];
+        nextTick = new int[size];
+        accelX = new float[size];
+        accelY = new float[size];
+        active = new int[size];
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.gravitygame.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws every body of a frame as a signed-distance quad: the body data is
+ * written into one vertex buffer per frame and a single shader produces the
+ * glow, fill, shadow and outline. Instance attributes would need GL3, so each
+ * quad corner carries its body's data instead; that keeps the path working on
+ * GL2 and software rasterisers such as Mesa llvmpipe.
+ */
+final class BodyBatch implements Disposable {
+    // Glow rings the shader can draw
+    static final int GLOW_LAYERS = 3;
+    // Indices are shorts, so one draw call holds at most this many bodies
+    private static final int MAX_BODIES_PER_DRAW = 65536 / 4 - 1;
+    // position(2) + local(2) + radius(1) + packed colour(1)
+    private static final int VERTEX_SIZE = 6;
+
+    private static final float[] CORNER_X = { -1, 1, 1, -1 };
+    private static final float[] CORNER_Y = { -1, -1, 1, 1 };
+
+    private final ShaderProgram shader;
+    // Uniform locations, -1 for any the compiler optimised away; setting those is a no-op
+    private int projTransLocation = -1;
+    private int pixelSizeLocation = -1;
+    private int outlineWidthLocation = -1;
+    private int pulseLocation = -1;
+    private int shadowOffsetLocation = -1;
+    private int glowAlphaLocation = -1;
+    private int glowLayersLocation = -1;
+    private int shadowAlphaLocation = -1;
+    private int glowIntensityLocation = -1;
+    private Mesh mesh;
+    private float[] vertices = new float[0];
+    private int bodyCapacity = 0;
+
+    BodyBatch() {
+        shader = new ShaderProgram(
+            Gdx.files.internal("shaders/bodies.vert"),
+            Gdx.files.internal("shaders/bodies.frag")
+        );
+        if (!shader.isCompiled()) {
+            Gdx.app.error("BodyBatch", "Body shader failed to compile: " + shader.getLog());
+            return;
+        }
+        // Looked up without the pedantic check, which is a global other shaders rely on
+        projTransLocation = shader.fetchUniformLocation("u_projTrans", false);
+        pixelSizeLocation = shader.fetchUniformLocation("u_pixelSize", false);
+        outlineWidthLocation = shader.fetchUniformLocation("u_outlineWidth", false);
+        pulseLocation = shader.fetchUniformLocation("u_pulse", false);
+        shadowOffsetLocation = shader.fetchUniformLocation("u_shadowOffset", false);
+        glowAlphaLocation = shader.fetchUniformLocation("u_glowAlpha", false);
+        glowLayersLocation = shader.fetchUniformLocation("u_glowLayers", false);
+        shadowAlphaLocation = shader.fetchUniformLocation("u_shadowAlpha", false);
+        glowIntensityLocation = shader.fetchUniformLocation("u_glowIntensity", false);
+    }
+
+    /**
+     * Quad half-size in body radii: the outermost drawn glow ring plus
+     * antialiasing, or the pulsing outline when there is no glow. Fewer rings
+     * give smaller quads and so fewer fragments to shade.
+     */
+    static float extent(int glowLayers) {
+        return glowLayers > 0 ? 1.05f + 0.15f * glowLayers : 1.1f;
+    }
+
+    boolean isAvailable() {
+        return shader.isCompiled();
+    }
+
+    /**
+     * Draws all bodies in the list, in one draw call per
+     * {@link #MAX_BODIES_PER_DRAW} bodies.
+     *
+     * @param projection Camera projection; also gives the world size of a pixel
+     * @param shadowOffset Inner shadow offset in body radii
+     * @param pulse Outline radius scale
+     * @param glowAlpha Opacity of the innermost glow ring
+     * @param glowLayers Glow rings to draw, from 0 to {@link #GLOW_LAYERS}
+     */
+    void render(VisibleBodies state, Matrix4 projection, float outlineWidth, Vector2 shadowOffset,
+                float pulse, float glowAlpha, int glowLayers, float shadowAlpha, float glowIntensity) {
+        int total = state.size();
+        if (total == 0) return;
+        ensureCapacity(Math.min(total, MAX_BODIES_PER_DRAW));
+
+        // World units per pixel, from the orthographic x scale
+        float pixelSize = 2f / (projection.val[Matrix4.M00] * Gdx.graphics.getWidth());
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA); // Shader output is premultiplied
+        shader.bind();
+        shader.setUniformMatrix(projTransLocation, projection);
+        shader.setUniformf(pixelSizeLocation, pixelSize);
+        shader.setUniformf(outlineWidthLocation, outlineWidth);
+        shader.setUniformf(pulseLocation, pulse);
+        shader.setUniformf(shadowOffsetLocation, shadowOffset.x, shadowOffset.y);
+        shader.setUniformf(glowAlphaLocation, glowAlpha);
+        shader.setUniformf(glowLayersLocation, glowLayers);
+        shader.setUniformf(shadowAlphaLocation, shadowAlpha);
+        shader.setUniformf(glowIntensityLocation, glowIntensity);
+
+        for (int start = 0; start < total; start += MAX_BODIES_PER_DRAW) {
+            int end = Math.min(total, start + MAX_BODIES_PER_DRAW);
+            int floats = fill(state, start, end, extent(glowLayers));
+            mesh.setVertices(vertices, 0, floats);
+            mesh.render(shader, GL20.GL_TRIANGLES, 0, (end - start) * 6);
+        }
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * Writes the quads of bodies {@code start..end} into the vertex array.
+     *
+     * @return Number of floats written
+     */
+    private int fill(VisibleBodies state, int start, int end, float extent) {
+        float[] v = vertices;
+        int offset = 0;
+        for (int body = start; body < end; body++) {
+            float x = state.getX(body);
+            float y = state.getY(body);
+            float radius = state.getRadius(body);
+            float color = state.getPackedColor(body);
+            for (int corner = 0; corner < 4; corner++) {
+                float localX = CORNER_X[corner] * extent;
+                float localY = CORNER_Y[corner] * extent;
+                v[offset++] = x + localX * radius;
+                v[offset++] = y + localY * radius;
+                v[offset++] = localX;
+                v[offset++] = localY;
+                v[offset++] = radius;
+                v[offset++] = color;
+            }
+        }
+        return offset;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= bodyCapacity) return;
+        int capacity = Math.min(MAX_BODIES_PER_DRAW, Math.max(count, bodyCapacity * 2));
+        if (mesh != null) {
+            mesh.dispose();
+        }
+        mesh = new Mesh(false, capacity * 4, capacity * 6,
+            new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+            new VertexAttribute(Usage.Generic, 2, "a_local"),
+            new VertexAttribute(Usage.Generic, 1, "a_radius"),
+            VertexAttribute.ColorPacked()
+        );
+        short[] indices = new short[capacity * 6];
+        for (int body = 0, i = 0; body < capacity; body++) {
+            short first = (short) (body * 4);
+            indices[i++] = first;
+            indices[i++] = (short) (first + 1);
+            indices[i++] = (short) (first + 2);
+            indices[i++] = (short) (first + 2);
+            indices[i++] = (short) (first + 3);
+            indices[i++] = first;
+        }
+        mesh.setIndices(indices);
+        vertices = new float[capacity * 4 * VERTEX_SIZE];
+        bodyCapacity = capacity;
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        if (mesh != null) {
+            mesh.dispose();
+        }
+    }
+}
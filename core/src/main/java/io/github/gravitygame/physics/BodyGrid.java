@@ -0,0 +1,104 @@
+package io.github.gravitygame.physics;
+
+import java.util.Arrays;
+
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Uniform grid over the bounding box of one frame, about one body per cell.
+ * Bodies are counting-sorted by cell into flat arrays, so a rectangle query is
+ * a walk over the cells it covers, and rebuilding allocates nothing once the
+ * arrays have grown.
+ */
+final class BodyGrid {
+    private float originX = 0;
+    private float originY = 0;
+    private float inverseCellSize = 1f;
+    private int columns = 1;
+    private int rows = 1;
+    private float maxRadius = 0;
+
+    // Bodies ordered by cell; cell c holds sorted[cellStart[c] .. cellStart[c + 1])
+    private int[] sorted = new int[0];
+    private int[] cellStart = new int[2];
+    private int[] bodyCell = new int[0];
+
+    void build(WorldState state) {
+        int count = state.size();
+        if (bodyCell.length < count) {
+            sorted = new int[count];
+            bodyCell = new int[count];
+        }
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        maxRadius = 0;
+        for (int i = 0; i < count; i++) {
+            float x = state.getX(i), y = state.getY(i);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxRadius = Math.max(maxRadius, state.getRadius(i));
+        }
+        if (count == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+
+        // Square cells, sized so the grid has about as many cells as bodies
+        float width = Math.max(maxX - minX, 1f);
+        float height = Math.max(maxY - minY, 1f);
+        float cellSize = (float) Math.sqrt(width * height / Math.max(1, count));
+        inverseCellSize = 1f / cellSize;
+        originX = minX;
+        originY = minY;
+        columns = Math.max(1, Math.min((int) (width * inverseCellSize) + 1, 4 * count + 1));
+        rows = Math.max(1, Math.min((int) (height * inverseCellSize) + 1, 4 * count + 1));
+
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        }
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int i = 0; i < count; i++) {
+            int cell = row(state.getY(i)) * columns + column(state.getX(i));
+            bodyCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            sorted[--cellStart[bodyCell[i] + 1]] = i;
+        }
+        System.arraycopy(cellStart, 1, cellStart, 0, cells);
+        cellStart[cells] = count;
+    }
+
+    /**
+     * Largest body radius in the frame, for padding queries.
+     */
+    float maxRadius() { return maxRadius; }
+
+    int columns() { return columns; }
+
+    /**
+     * Column of an x coordinate, clamped to the grid.
+     */
+    int column(float x) {
+        int column = (int) ((x - originX) * inverseCellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    /**
+     * Row of a y coordinate, clamped to the grid.
+     */
+    int row(float y) {
+        int row = (int) ((y - originY) * inverseCellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    int cellStart(int cell) { return cellStart[cell]; }
+    int cellEnd(int cell) { return cellStart[cell + 1]; }
+    int bodyAt(int position) { return sorted[position]; }
+}
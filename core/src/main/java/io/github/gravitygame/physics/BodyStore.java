@@ -0,0 +1,153 @@
+package io.github.gravitygame.physics;
+
+import java.util.UUID;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.gravitygame.entities.PhysicsBody;
+
+/**
+ * Structure-of-arrays copy of the simulation bodies used by the gravity kernels.
+ * A body's handle is its index in the owning body array, so handles stay dense
+ * and are only reassigned when the body set is reloaded.
+ */
+public final class BodyStore {
+    float[] x = new float[0];
+    float[] y = new float[0];
+    float[] vx = new float[0];
+    float[] vy = new float[0];
+    float[] mass = new float[0];
+    float[] radius = new float[0];
+
+    // Reciprocal of the mass Box2D derives from the fixture density set up in
+    // BodyFactory (density * area = mass / radius), so integrators that bypass
+    // Box2D turn the same forces into the same accelerations
+    float[] inverseMass = new float[0];
+
+    // Force accumulators, in the units passed to Body.applyForceToCenter
+    float[] fx = new float[0];
+    float[] fy = new float[0];
+
+    // Render attributes, copied once per load so snapshot capture never
+    // touches the PhysicsBody objects
+    float[] color = new float[0]; // Packed ABGR, see Color.toFloatBits
+    UUID[] ids = new UUID[0];
+
+    // Set when a kernel changed a velocity that has to be written back to Box2D
+    boolean[] velocityDirty = new boolean[0];
+
+    int count = 0;
+
+    // Incremented on every load so caches keyed by handle can detect reassignment
+    private int generation = 0;
+
+    private final Vector2 scratch = new Vector2();
+
+    /**
+     * Reloads every field from the given bodies. Call whenever the body set changes.
+     */
+    public void load(Array<PhysicsBody> bodies) {
+        ensureCapacity(bodies.size);
+        count = bodies.size;
+        for (int i = 0; i < count; i++) {
+            PhysicsBody body = bodies.get(i);
+            mass[i] = body.getMass();
+            radius[i] = body.getRadius();
+            inverseMass[i] = radius[i] / mass[i];
+            color[i] = body.getColor().toFloatBits();
+            ids[i] = body.getId();
+        }
+        pull(bodies);
+        generation++;
+    }
+
+    /**
+     * Reads positions and velocities back from Box2D.
+     */
+    public void pull(Array<PhysicsBody> bodies) {
+        for (int i = 0; i < count; i++) {
+            Body body = bodies.get(i).getBody();
+            Vector2 position = body.getPosition();
+            x[i] = position.x;
+            y[i] = position.y;
+            Vector2 velocity = body.getLinearVelocity();
+            vx[i] = velocity.x;
+            vy[i] = velocity.y;
+            velocityDirty[i] = false;
+        }
+    }
+
+    /**
+     * Applies the accumulated forces, and any velocity a kernel changed, to Box2D.
+     */
+    public void push(Array<PhysicsBody> bodies) {
+        for (int i = 0; i < count; i++) {
+            Body body = bodies.get(i).getBody();
+            if (velocityDirty[i]) {
+                body.setLinearVelocity(vx[i], vy[i]);
+                velocityDirty[i] = false;
+            }
+            body.applyForceToCenter(scratch.set(fx[i], fy[i]), true);
+        }
+    }
+
+    /**
+     * Writes positions and velocities to Box2D, for integrators that advance the
+     * store directly and only need Box2D to reflect the result.
+     */
+    public void writeBack(Array<PhysicsBody> bodies) {
+        for (int i = 0; i < count; i++) {
+            Body body = bodies.get(i).getBody();
+            body.setTransform(x[i], y[i], 0);
+            body.setLinearVelocity(vx[i], vy[i]);
+            velocityDirty[i] = false;
+        }
+    }
+
+    public void clearForces() {
+        for (int i = 0; i < count; i++) {
+            fx[i] = 0;
+            fy[i] = 0;
+        }
+    }
+
+    public int size() { return count; }
+    public int getGeneration() { return generation; }
+
+    // Getters
+    public float getX(int handle) { return x[handle]; }
+    public float getY(int handle) { return y[handle]; }
+    public float getVelocityX(int handle) { return vx[handle]; }
+    public float getVelocityY(int handle) { return vy[handle]; }
+    public float getMass(int handle) { return mass[handle]; }
+    public float getRadius(int handle) { return radius[handle]; }
+    public float getForceX(int handle) { return fx[handle]; }
+    public float getForceY(int handle) { return fy[handle]; }
+    public float getPackedColor(int handle) { return color[handle]; }
+    public UUID getId(int handle) { return ids[handle]; }
+
+    private void ensureCapacity(int capacity) {
+        if (x.length >= capacity) return;
+        int size = Math.max(capacity, x.length * 2);
+        x = copyOf(x, size);
+        y = copyOf(y, size);
+        vx = copyOf(vx, size);
+        vy = copyOf(vy, size);
+        mass = copyOf(mass, size);
+        radius = copyOf(radius, size);
+        inverseMass = copyOf(inverseMass, size);
+        fx = copyOf(fx, size);
+        fy = copyOf(fy, size);
+        color = copyOf(color, size);
+        ids = new UUID[size];
+        velocityDirty = new boolean[size];
+    }
+
+    private static float[] copyOf(float[] source, int size) {
+        float[] copy = new float[size];
+        System.arraycopy(source, 0, copy, 0, source.length);
+        return copy;
+    }
+}
@@ -1,96 +1,127 @@
 package io.github.gravitygame.physics;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.UUID;
-
-import io.github.gravitygame.entities.BodyState;
-import io.github.gravitygame.managers.SoundManager;
 import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.utils.FlightEvents;
+import io.github.gravitygame.utils.LongHashSet;
+import io.github.gravitygame.utils.PerformanceMonitor;
 import io.github.gravitygame.utils.WorldState;
 
+/**
+ * Reports when two displayed bodies start to overlap, e.g. so a sound can be
+ * played. Candidate pairs
+ * come from a spatial hash, so only bodies in neighbouring cells are tested and
+ * the cost grows roughly linearly with body count.
+ */
 public class CollisionManager {
+    /**
+     * Receives each new overlap once, on the thread that calls {@link #update()}.
+     */
+    public interface CollisionListener {
+        /**
+         * @param size "large", "medium" or "small", by impact intensity
+         */
+        void collisionStarted(String size, float intensity);
+    }
+
     private final WorldStateManager worldStateManager;
-    private final SoundManager soundManager;
-    private final Set<CollisionPair> processedCollisions = new HashSet<>();
+    private final CollisionListener listener;
+    private final SpatialHash grid = new SpatialHash();
+    // Buckets already scanned for the current body
+    private final int[] scannedBuckets = new int[9];
+    // Overlapping pairs of the previous and the current frame, keyed by pairKey
+    private LongHashSet previousCollisions = new LongHashSet();
+    private LongHashSet currentCollisions = new LongHashSet();
+    // Body indices are only stable within one timeline
+    private int trackedGeneration = -1;
 
-    public CollisionManager(WorldStateManager worldStateManager) {
+    public CollisionManager(WorldStateManager worldStateManager, CollisionListener listener) {
         this.worldStateManager = worldStateManager;
-        this.soundManager = SoundManager.getInstance();
+        this.listener = listener;
     }
 
     public void update() {
         WorldState displayedState = worldStateManager.getOldestState();
         if (displayedState == null) return;
+        Object event = FlightEvents.beginCollisions();
+        int hits = 0;
 
-        // Changed from Array<BodyState> to List<BodyState> to match the returned type
-        List<BodyState> bodies = displayedState.getBodyStates();
-        
-        Set<CollisionPair> currentCollisions = new HashSet<>();
+        // A new timeline starts at the frame that was on screen, whose overlaps
+        // have already been heard; only record them
+        boolean announce = displayedState.getGeneration() == trackedGeneration;
+        trackedGeneration = displayedState.getGeneration();
+
+        int count = displayedState.size();
+        grid.build(displayedState);
+        long pairs = 0;
 
-        // Check all pairs in displayed state
-        for (int i = 0; i < bodies.size(); i++) {
-            BodyState a = bodies.get(i);
-            for (int j = i + 1; j < bodies.size(); j++) {
-                BodyState b = bodies.get(j);
-                
-                if (isColliding(a, b)) {
-                    CollisionPair pair = new CollisionPair(a.getId(), b.getId());
-                    currentCollisions.add(pair);
+        // Check each body against later bodies in its own and the neighbouring cells
+        for (int a = 0; a < count; a++) {
+            int cellX = grid.cellX(a);
+            int cellY = grid.cellY(a);
+            int scanned = 0;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int bucket = grid.bucketOf(cellX + dx, cellY + dy);
+                    // Buckets can be shared by several cells; scan each once so
+                    // every pair is tested and counted once
+                    if (isScanned(bucket, scanned)) continue;
+                    scannedBuckets[scanned++] = bucket;
+                    for (int k = grid.bucketStart(bucket); k < grid.bucketEnd(bucket); k++) {
+                        int b = grid.bodyAt(k);
+                        if (b <= a) continue;
+                        pairs++;
+                        if (!isColliding(displayedState, a, b)) continue;
 
-                    if (!processedCollisions.contains(pair)) {
-                        handleNewCollision(a, b);
-                        processedCollisions.add(pair);
+                        long pair = pairKey(a, b);
+                        if (currentCollisions.add(pair) && announce && !previousCollisions.contains(pair)) {
+                            handleNewCollision(displayedState, a, b);
+                            hits++;
+                        }
                     }
                 }
             }
         }
 
-        // Cleanup old collisions that are no longer happening
-        processedCollisions.retainAll(currentCollisions);
+        PerformanceMonitor.getInstance().count(PerformanceMonitor.Counter.PAIRS, pairs);
+        FlightEvents.endCollisions(event, count, pairs, hits);
+
+        // Pairs no longer overlapping drop out with the previous frame's set
+        LongHashSet swap = previousCollisions;
+        previousCollisions = currentCollisions;
+        currentCollisions = swap;
+        currentCollisions.clear();
+    }
+
+    private boolean isScanned(int bucket, int scanned) {
+        for (int i = 0; i < scanned; i++) {
+            if (scannedBuckets[i] == bucket) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Packs an ordered pair of body indices into one non-zero key.
+     */
+    private static long pairKey(int a, int b) {
+        return ((long) a << 32) | b;
     }
 
-    private boolean isColliding(BodyState a, BodyState b) {
-        float distance = a.getPosition().dst(b.getPosition());
-        return distance < (a.getRadius() + b.getRadius());
+    private boolean isColliding(WorldState state, int a, int b) {
+        float dx = state.getX(b) - state.getX(a);
+        float dy = state.getY(b) - state.getY(a);
+        float radii = state.getRadius(a) + state.getRadius(b);
+        return dx * dx + dy * dy < radii * radii;
     }
 
-    private void handleNewCollision(BodyState a, BodyState b) {
+    private void handleNewCollision(WorldState state, int a, int b) {
         // Calculate intensity using historical velocity data
-        float intensity = a.getMass() * b.getMass() * a.getVelocity().dst(b.getVelocity());
+        float dvx = state.getVelocityX(b) - state.getVelocityX(a);
+        float dvy = state.getVelocityY(b) - state.getVelocityY(a);
+        float intensity = state.getMass(a) * state.getMass(b) * (float) Math.sqrt(dvx * dvx + dvy * dvy);
         
         String size = intensity > 5000 ? "large" : 
                      intensity > 1000 ? "medium" : "small";
         
-        soundManager.playCollisionSound(size);
-    }
-
-    private static class CollisionPair {
-        final UUID id1, id2;
-
-        CollisionPair(UUID id1, UUID id2) {
-            // Ensure consistent ordering using compareTo
-            if (id1.compareTo(id2) < 0) {
-                this.id1 = id1;
-                this.id2 = id2;
-            } else {
-                this.id1 = id2;
-                this.id2 = id1;
-            }
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof CollisionPair)) return false;
-            CollisionPair that = (CollisionPair) o;
-            return id1.equals(that.id1) && id2.equals(that.id2);
-        }
-
-        @Override
-        public int hashCode() {
-            return id1.hashCode() ^ id2.hashCode();
-        }
+        listener.collisionStarted(size, intensity);
     }
 }
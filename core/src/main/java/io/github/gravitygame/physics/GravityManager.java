@@ -1,5 +1,9 @@
 package io.github.gravitygame.physics;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 
@@ -7,96 +11,474 @@ import io.github.gravitygame.entities.PhysicsBody;
 
 public final class GravityManager {
     // Base gravitational constant - higher values create more dramatic motion
-    private static final float G = 3000.0f;
+    public static final float G = 3000.0f;
     
     // Minimum distance to prevent extreme forces
-    private static final float MIN_DISTANCE = 15.0f;
+    public static final float MIN_DISTANCE = 15.0f;
     
     // Dance factor - enhances perpendicular motion to create orbital variety
-    private static final float DANCE_FACTOR = 0.4f;
+    static final float DANCE_FACTOR = 0.4f;
     
     // Velocity boost - occasionally increases energy in the system
     private static final float ENERGY_BOOST = 1.005f;
     
-    // Reusable vectors to avoid garbage collection
-    private static final Vector2 delta = new Vector2();
-    private static final Vector2 perp = new Vector2();
-    private static final Vector2 force = new Vector2();
+    // Default Barnes-Hut opening angle - lower is more accurate, higher is faster
+    public static final float DEFAULT_OPENING_ANGLE = 0.5f;
+    
+    // Body count above which AUTO switches from direct summation to Barnes-Hut
+    public static final int BARNES_HUT_THRESHOLD = 256;
+    
+    // Body count from which parallel mode hands the force loop to the worker pool
+    public static final int PARALLEL_THRESHOLD = 1024;
+    
+    // Targets per parallel work unit; fixed so the split never depends on thread count
+    private static final int TARGET_BLOCK = 32;
     
     /**
-     * Apply gravity forces between all physics bodies with "dance" enhancements
+     * Force evaluation strategy used by {@link #updateGravity(BodyStore, double)}.
+     */
+    public enum Solver {
+        DIRECT,      // Exact O(n^2) summation over every unique pair
+        BARNES_HUT,  // O(n log n) quadtree approximation controlled by the opening angle
+        AUTO         // Direct for small systems, Barnes-Hut above BARNES_HUT_THRESHOLD
+    }
+    
+    // Set from the render thread, read by the simulation thread
+    private static volatile Solver solver = Solver.AUTO;
+    private static volatile float openingAngle = DEFAULT_OPENING_ANGLE;
+    
+    // Barnes-Hut tree, reused between steps
+    private static final BarnesHutTree tree = new BarnesHutTree();
+    
+    // Store used by the PhysicsBody convenience overload
+    private static final BodyStore scratchStore = new BodyStore();
+    
+    // Parallel force evaluation
+    private static boolean parallel = true;
+    private static ForkJoinPool pool;
+    private static int parallelism = Runtime.getRuntime().availableProcessors();
+    // Vector API direct kernel, used when the JVM provides it
+    private static boolean simd = true;
+    
+    private static final ThreadLocal<BarnesHutTree.Walker> walkers = new ThreadLocal<BarnesHutTree.Walker>() {
+        @Override
+        protected BarnesHutTree.Walker initialValue() {
+            return new BarnesHutTree.Walker();
+        }
+    };
+    
+    public static void setSolver(Solver newSolver) {
+        solver = newSolver;
+    }
+    
+    public static Solver getSolver() {
+        return solver;
+    }
+    
+    /**
+     * Sets the Barnes-Hut opening angle (theta). A cell is approximated by its
+     * centre of mass when its size divided by its distance is below theta.
+     */
+    public static void setOpeningAngle(float theta) {
+        openingAngle = Math.max(0f, theta);
+    }
+    
+    public static float getOpeningAngle() {
+        return openingAngle;
+    }
+    
+    /**
+     * Enables multi-threaded force evaluation for systems of at least
+     * {@link #PARALLEL_THRESHOLD} bodies. Each body's force is summed by exactly
+     * one task in a fixed source order, so results are bit-identical for any
+     * thread count. That holds for the scalar kernels only; see {@link #setSimd}.
+     */
+    public static void setParallel(boolean enabled) {
+        parallel = enabled;
+    }
+    
+    public static boolean isParallel() {
+        return parallel;
+    }
+    
+    /**
+     * Sets the number of worker threads used in parallel mode.
+     */
+    public static synchronized void setParallelism(int threads) {
+        int clamped = Math.max(1, threads);
+        if (clamped == parallelism) return;
+        parallelism = clamped;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+    
+    public static int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Enables the vectorised direct-sum kernel. It only takes effect where
+     * {@link #isSimdAvailable()} is true (Java 17+ started with
+     * {@code --add-modules jdk.incubator.vector}); elsewhere the scalar kernel runs.
+     * Its vector sine can round differently in interpreted and compiled code, so
+     * turn it off where runs have to be bit-identical.
+     */
+    public static void setSimd(boolean enabled) {
+        simd = enabled;
+    }
+    
+    public static boolean isSimd() {
+        return simd;
+    }
+    
+    public static boolean isSimdAvailable() {
+        return SimdGravityKernel.isAvailable();
+    }
+    
+    private static boolean usesSimd() {
+        return simd && SimdGravityKernel.isAvailable();
+    }
+    
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+    
+    /**
+     * Apply gravity forces between all physics bodies with "dance" enhancements.
+     * Convenience overload that round-trips through a scratch {@link BodyStore};
+     * the simulation loop keeps its own store and calls {@link #updateGravity(BodyStore, double)}.
      */
     public static void updateGravity(Array<PhysicsBody> bodies) {
-        // Wake all bodies
-        for (int i = 0; i < bodies.size; i++) {
-            PhysicsBody body = bodies.get(i);
-            body.getBody().setAwake(true);
-            
+        scratchStore.load(bodies);
+        updateGravity(scratchStore, System.currentTimeMillis() * 0.001);
+        scratchStore.push(bodies);
+    }
+    
+    /**
+     * Accumulate gravity forces for every body in the store into its force arrays,
+     * after applying the occasional energy boost.
+     *
+     * @param time Simulation time in seconds; drives the phase of the dance pulse
+     *             so that a step is fully determined by its inputs
+     */
+    public static void updateGravity(BodyStore store, double time) {
+        applyEnergyBoost(store, time);
+        computeForces(store, time);
+    }
+    
+    /**
+     * Occasionally scales a body's velocity up slightly. Changed velocities are
+     * flagged for write-back. Integrators that evaluate forces several times per
+     * step call this once per step and use {@link #computeForces} for the rest.
+     * Whether a body is boosted depends only on the step's time and the body's
+     * index, so re-simulating from a keyframe reproduces the same boosts.
+     *
+     * @param time Simulation time at the start of the step
+     */
+    public static void applyEnergyBoost(BodyStore store, double time) {
+        int count = store.count;
+        float[] vx = store.vx, vy = store.vy;
+        long stepSeed = Double.doubleToLongBits(time) * 0x9E3779B97F4A7C15L;
+        RandomXS128 random = new RandomXS128(stepSeed);
+        
+        for (int i = 0; i < count; i++) {
             // Occasional tiny energy boost to prevent orbital decay
             // This keeps the system lively over longer simulations
-            Vector2 vel = body.getBody().getLinearVelocity();
-            if (vel.len2() > 0.5f && Math.random() < 0.02) {
-                vel.scl(ENERGY_BOOST);
-                body.getBody().setLinearVelocity(vel);
+            float speed2 = vx[i] * vx[i] + vy[i] * vy[i];
+            if (speed2 <= 0.5f) continue;
+            random.setSeed(stepSeed + i);
+            if (random.nextFloat() < 0.02f) {
+                vx[i] *= ENERGY_BOOST;
+                vy[i] *= ENERGY_BOOST;
+                store.velocityDirty[i] = true;
+            }
+        }
+    }
+    
+    /**
+     * Overwrites the store's force arrays with the gravity on every body.
+     *
+     * @param time Simulation time in seconds, used as the dance pulse phase
+     */
+    public static void computeForces(BodyStore store, double time) {
+        int count = store.count;
+        store.clearForces();
+        
+        boolean useTree = usesBarnesHut(count);
+        if (useTree) {
+            tree.build(store.x, store.y, store.vx, store.vy, store.mass, count);
+        }
+        
+        if (parallel && count >= PARALLEL_THRESHOLD) {
+            getPool().invoke(new ForceTask(store, null, 0, count, time, useTree));
+        } else if (useTree) {
+            applyBarnesHutGravity(store, time);
+        } else if (usesSimd()) {
+            // Per-target sums vectorise; the pair-symmetric loop does not
+            for (int i = 0; i < count; i++) {
+                SimdGravityKernel.accumulate(store, i, time);
             }
+        } else {
+            applyDirectGravity(store, time);
+        }
+    }
+    
+    /**
+     * Overwrites the force of each listed body with the gravity from every body
+     * in the store. Forces of unlisted bodies are left untouched, which lets
+     * block timestepping refresh only the bodies that are due.
+     *
+     * @param targets Handles of the bodies to evaluate
+     * @param targetCount Number of valid entries in {@code targets}
+     */
+    public static void computeForces(BodyStore store, double time, int[] targets, int targetCount) {
+        int count = store.count;
+        for (int k = 0; k < targetCount; k++) {
+            store.fx[targets[k]] = 0;
+            store.fy[targets[k]] = 0;
+        }
+        
+        boolean useTree = usesBarnesHut(count);
+        if (useTree) {
+            tree.build(store.x, store.y, store.vx, store.vy, store.mass, count);
         }
         
-        // Calculate forces between all unique pairs
-        for (int i = 0; i < bodies.size; i++) {
-            PhysicsBody bodyA = bodies.get(i);
+        if (parallel && count >= PARALLEL_THRESHOLD && targetCount > TARGET_BLOCK) {
+            getPool().invoke(new ForceTask(store, targets, 0, targetCount, time, useTree));
+        } else if (useTree) {
+            for (int k = 0; k < targetCount; k++) {
+                tree.accumulate(targets[k], openingAngle, time, store.fx, store.fy);
+            }
+        } else {
+            boolean vectorised = usesSimd();
+            for (int k = 0; k < targetCount; k++) {
+                if (vectorised) {
+                    SimdGravityKernel.accumulate(store, targets[k], time);
+                } else {
+                    accumulateDirect(store, targets[k], time);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Whether force evaluation over this many bodies uses the Barnes-Hut tree
+     * under the current solver.
+     */
+    public static boolean usesBarnesHut(int bodyCount) {
+        switch (solver) {
+            case BARNES_HUT:
+                return true;
+            case AUTO:
+                return bodyCount > BARNES_HUT_THRESHOLD;
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Approximate gravity using a quadtree rebuilt from the current body positions
+     */
+    private static void applyBarnesHutGravity(BodyStore store, double phase) {
+        for (int i = 0; i < store.count; i++) {
+            tree.accumulate(i, openingAngle, phase, store.fx, store.fy);
+        }
+    }
+    
+    /**
+     * Exact gravity with dance-enhancing adjustments, computed once per unique pair
+     */
+    private static void applyDirectGravity(BodyStore store, double phase) {
+        int count = store.count;
+        float[] x = store.x, y = store.y, vx = store.vx, vy = store.vy, mass = store.mass;
+        float[] fx = store.fx, fy = store.fy;
+        
+        for (int i = 0; i < count; i++) {
+            float ax = x[i], ay = y[i], avx = vx[i], avy = vy[i], aMass = mass[i];
+            float sumX = 0, sumY = 0;
             
-            for (int j = i + 1; j < bodies.size; j++) {
-                PhysicsBody bodyB = bodies.get(j);
-                applyDynamicGravity(bodyA, bodyB);
+            for (int j = i + 1; j < count; j++) {
+                // Calculate displacement vector between bodies
+                float dx = x[j] - ax;
+                float dy = y[j] - ay;
+                float distance = (float) Math.sqrt(dx * dx + dy * dy);
+                
+                // Skip if too close to prevent extreme forces
+                if (distance < 0.01f) continue;
+                
+                // Use minimum effective distance
+                float effectiveDistance = Math.max(distance, MIN_DISTANCE);
+                
+                // Direction from A to B, and its perpendicular for the "dance" component
+                float dirX = dx / distance;
+                float dirY = dy / distance;
+                
+                // Calculate base gravitational force
+                float bMass = mass[j];
+                float forceMagnitude = G * aMass * bMass / (effectiveDistance * effectiveDistance);
+                
+                // Calculate velocity differences
+                float rvx = vx[j] - avx;
+                float rvy = vy[j] - avy;
+                float relativeSpeed = (float) Math.sqrt(rvx * rvx + rvy * rvy);
+                float danceIntensity = DANCE_FACTOR * Math.min(1.0f, relativeSpeed / 20.0f);
+                
+                // Create dynamism with mass-based dance component
+                float massRatio = aMass / (aMass + bMass);
+                float dancePulse = (float) (Math.sin(distance * 0.01 + phase) * danceIntensity);
+                
+                // Force on body A (gravitational + dance component)
+                float radialA = forceMagnitude / aMass;
+                float tangentialA = forceMagnitude * dancePulse * (1 - massRatio) / aMass;
+                sumX += dirX * radialA - dirY * tangentialA;
+                sumY += dirY * radialA + dirX * tangentialA;
+                
+                // Force on body B (gravitational + dance component)
+                float radialB = -forceMagnitude / bMass;
+                float tangentialB = -forceMagnitude * dancePulse * massRatio / bMass;
+                fx[j] += dirX * radialB - dirY * tangentialB;
+                fy[j] += dirY * radialB + dirX * tangentialB;
             }
+            
+            fx[i] += sumX;
+            fy[i] += sumY;
         }
     }
     
     /**
-     * Apply gravity with dance-enhancing adjustments
+     * Exact gravity on a single body from every other body, summed in index order.
+     * Unlike {@link #applyDirectGravity} nothing is written to other bodies, so
+     * distinct targets can be processed concurrently.
      */
-    private static void applyDynamicGravity(PhysicsBody bodyA, PhysicsBody bodyB) {
-        // Calculate displacement vector between bodies
-        delta.set(bodyB.getPosition()).sub(bodyA.getPosition());
-        float distance = delta.len();
+    static void accumulateDirect(BodyStore store, int i, double phase) {
+        int count = store.count;
+        float[] x = store.x, y = store.y, vx = store.vx, vy = store.vy, mass = store.mass;
+        float ax = x[i], ay = y[i], avx = vx[i], avy = vy[i], aMass = mass[i];
+        float sumX = 0, sumY = 0;
         
-        // Skip if too close to prevent extreme forces
-        if (distance < 0.01f) return;
+        for (int j = 0; j < count; j++) {
+            if (j == i) continue;
+            
+            float dx = x[j] - ax;
+            float dy = y[j] - ay;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            if (distance < 0.01f) continue;
+            
+            float effectiveDistance = Math.max(distance, MIN_DISTANCE);
+            float dirX = dx / distance;
+            float dirY = dy / distance;
+            
+            float bMass = mass[j];
+            float forceMagnitude = G * aMass * bMass / (effectiveDistance * effectiveDistance);
+            
+            float rvx = vx[j] - avx;
+            float rvy = vy[j] - avy;
+            float relativeSpeed = (float) Math.sqrt(rvx * rvx + rvy * rvy);
+            float danceIntensity = DANCE_FACTOR * Math.min(1.0f, relativeSpeed / 20.0f);
+            
+            float massRatio = aMass / (aMass + bMass);
+            float dancePulse = (float) (Math.sin(distance * 0.01 + phase) * danceIntensity);
+            
+            float radial = forceMagnitude / aMass;
+            float tangential = forceMagnitude * dancePulse * (1 - massRatio) / aMass;
+            sumX += dirX * radial - dirY * tangential;
+            sumY += dirY * radial + dirX * tangential;
+        }
         
-        // Use minimum effective distance
-        float effectiveDistance = Math.max(distance, MIN_DISTANCE);
+        store.fx[i] += sumX;
+        store.fy[i] += sumY;
+    }
+    
+    /**
+     * Evaluates forces for a contiguous range of targets, splitting in halves
+     * down to {@link #TARGET_BLOCK}. Every target is owned by exactly one leaf
+     * task, which acts as that body's private accumulator.
+     */
+    private static final class ForceTask extends RecursiveAction {
+        private final BodyStore store;
+        // Target handles, or null when the range indexes the store directly
+        private final int[] targets;
+        private final int from, to;
+        private final double phase;
+        private final boolean useTree;
         
-        // Get velocities for dancing calculations
-        Vector2 velA = bodyA.getBody().getLinearVelocity();
-        Vector2 velB = bodyB.getBody().getLinearVelocity();
+        ForceTask(BodyStore store, int[] targets, int from, int to, double phase, boolean useTree) {
+            this.store = store;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.phase = phase;
+            this.useTree = useTree;
+        }
         
-        // Direction from A to B
-        Vector2 direction = delta.nor();
+        @Override
+        protected void compute() {
+            if (to - from > TARGET_BLOCK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new ForceTask(store, targets, from, mid, phase, useTree),
+                    new ForceTask(store, targets, mid, to, phase, useTree)
+                );
+                return;
+            }
+            
+            BarnesHutTree.Walker walker = useTree ? walkers.get() : null;
+            boolean vectorised = !useTree && usesSimd();
+            for (int k = from; k < to; k++) {
+                int i = targets != null ? targets[k] : k;
+                if (useTree) {
+                    tree.accumulate(i, openingAngle, phase, store.fx, store.fy, walker);
+                } else if (vectorised) {
+                    SimdGravityKernel.accumulate(store, i, phase);
+                } else {
+                    accumulateDirect(store, i, phase);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Force on body A from body B, matching the A side of {@link #applyDirectGravity}.
+     * B may be a single body or the aggregate of a quadtree cell.
+     * The result is written to {@code out[0]} and {@code out[1]}.
+     */
+    static void pairForce(float ax, float ay, float avx, float avy, float aMass,
+                          float bx, float by, float bvx, float bvy, float bMass,
+                          double phase, float[] out) {
+        float dx = bx - ax;
+        float dy = by - ay;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
         
-        // Perpendicular vector for "dance" component
-        perp.set(-direction.y, direction.x);
+        // Skip if too close to prevent extreme forces
+        if (distance < 0.01f) {
+            out[0] = 0;
+            out[1] = 0;
+            return;
+        }
         
-        // Calculate base gravitational force
-        float massProduct = bodyA.getMass() * bodyB.getMass();
-        float forceMagnitude = G * massProduct / (effectiveDistance * effectiveDistance);
+        float effectiveDistance = Math.max(distance, MIN_DISTANCE);
+        float dirX = dx / distance;
+        float dirY = dy / distance;
         
-        // Calculate velocity differences
-        float relativeSpeed = new Vector2(velB).sub(velA).len();
-        float danceIntensity = DANCE_FACTOR * Math.min(1.0f, relativeSpeed / 20.0f);
+        float forceMagnitude = G * aMass * bMass / (effectiveDistance * effectiveDistance);
         
-        // Create dynamism with mass-based dance component
-        float massRatio = bodyA.getMass() / (bodyA.getMass() + bodyB.getMass());
-        float dancePulse = (float)(Math.sin(distance * 0.01 + System.currentTimeMillis() * 0.001) * danceIntensity);
+        float rvx = bvx - avx;
+        float rvy = bvy - avy;
+        float relativeSpeed = (float) Math.sqrt(rvx * rvx + rvy * rvy);
+        float danceIntensity = DANCE_FACTOR * Math.min(1.0f, relativeSpeed / 20.0f);
         
-        // Apply force to body A (gravitational + dance component)
-        force.set(direction).scl(forceMagnitude / bodyA.getMass());
-        force.add(perp.cpy().scl(forceMagnitude * dancePulse * (1-massRatio) / bodyA.getMass()));
-        bodyA.getBody().applyForceToCenter(force, true);
+        float massRatio = aMass / (aMass + bMass);
+        float dancePulse = (float) (Math.sin(distance * 0.01 + phase) * danceIntensity);
         
-        // Apply force to body B (gravitational + dance component)
-        force.set(direction).scl(-forceMagnitude / bodyB.getMass());
-        force.add(perp.cpy().scl(-forceMagnitude * dancePulse * massRatio / bodyB.getMass()));
-        bodyB.getBody().applyForceToCenter(force, true);
+        float radial = forceMagnitude / aMass;
+        float tangential = forceMagnitude * dancePulse * (1 - massRatio) / aMass;
+        out[0] = dirX * radial - dirY * tangential;
+        out[1] = dirY * radial + dirX * tangential;
     }
     
     /**
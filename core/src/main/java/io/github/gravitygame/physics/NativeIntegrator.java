@@ -0,0 +1,137 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Pure-Java symplectic integrator that advances a {@link BodyStore} directly,
+ * replacing Box2D's semi-implicit Euler step for the simulation world.
+ */
+public final class NativeIntegrator {
+    // Box2D's b2_maxTranslation: no body may move further than this in one step
+    static final float MAX_TRANSLATION = 2.0f;
+
+    // Yoshida fourth-order coefficients
+    private static final double CBRT_2 = Math.cbrt(2.0);
+    private static final float W1 = (float) (1.0 / (2.0 - CBRT_2));
+    private static final float W0 = (float) (-CBRT_2 / (2.0 - CBRT_2));
+    private static final float[] YOSHIDA_DRIFT = { W1 / 2f, (W0 + W1) / 2f, (W0 + W1) / 2f, W1 / 2f };
+    private static final float[] YOSHIDA_KICK = { W1, W0, W1 };
+
+    public enum Scheme {
+        LEAPFROG,  // Kick-drift-kick, second order, one force evaluation per step
+        YOSHIDA4,  // Fourth-order composition of leapfrog, three force evaluations per step
+        BLOCK      // Leapfrog with per-body power-of-two sub-steps, see BlockTimestepper
+    }
+
+    private Scheme scheme = Scheme.LEAPFROG;
+    private final BlockTimestepper blockTimestepper = new BlockTimestepper();
+
+    // Forces at the current positions, carried over to the next leapfrog step
+    private boolean forcesValid = false;
+    private int storeGeneration = -1;
+
+    public void setScheme(Scheme scheme) {
+        this.scheme = scheme;
+    }
+
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Drops forces cached from the previous step. Call after positions or
+     * velocities are changed from outside the integrator.
+     */
+    public void invalidate() {
+        forcesValid = false;
+        blockTimestepper.invalidate();
+    }
+
+    /**
+     * Advances every body in the store by {@code dt}.
+     *
+     * @param time Simulation time at the start of the step
+     */
+    public void step(BodyStore store, double time, float dt) {
+        if (store.getGeneration() != storeGeneration) {
+            storeGeneration = store.getGeneration();
+            forcesValid = false;
+        }
+
+        GravityManager.applyEnergyBoost(store, time);
+        switch (scheme) {
+            case YOSHIDA4:
+                stepYoshida(store, time, dt);
+                break;
+            case BLOCK:
+                // Caps translation per body, using each body's own sub-step
+                blockTimestepper.step(store, time, dt);
+                return;
+            default:
+                stepLeapfrog(store, time, dt);
+                break;
+        }
+        limitTranslation(store, dt);
+    }
+
+    public BlockTimestepper getBlockTimestepper() {
+        return blockTimestepper;
+    }
+
+    private void stepLeapfrog(BodyStore store, double time, float dt) {
+        if (!forcesValid) {
+            GravityManager.computeForces(store, time);
+        }
+        kick(store, dt * 0.5f);
+        drift(store, dt);
+        GravityManager.computeForces(store, time + dt);
+        kick(store, dt * 0.5f);
+        forcesValid = true;
+    }
+
+    private void stepYoshida(BodyStore store, double time, float dt) {
+        double t = time;
+        for (int stage = 0; stage < YOSHIDA_KICK.length; stage++) {
+            drift(store, dt * YOSHIDA_DRIFT[stage]);
+            t += dt * YOSHIDA_DRIFT[stage];
+            GravityManager.computeForces(store, t);
+            kick(store, dt * YOSHIDA_KICK[stage]);
+        }
+        drift(store, dt * YOSHIDA_DRIFT[YOSHIDA_DRIFT.length - 1]);
+        // The last evaluation was not at the final positions
+        forcesValid = false;
+    }
+
+    private static void kick(BodyStore store, float dt) {
+        float[] vx = store.vx, vy = store.vy, fx = store.fx, fy = store.fy, inverseMass = store.inverseMass;
+        for (int i = 0; i < store.count; i++) {
+            float scale = inverseMass[i] * dt;
+            vx[i] += fx[i] * scale;
+            vy[i] += fy[i] * scale;
+        }
+    }
+
+    private static void drift(BodyStore store, float dt) {
+        float[] x = store.x, y = store.y, vx = store.vx, vy = store.vy;
+        for (int i = 0; i < store.count; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+    }
+
+    /**
+     * Mirrors Box2D's per-step translation cap so both backends share the same
+     * speed ceiling.
+     */
+    private static void limitTranslation(BodyStore store, float dt) {
+        float maxSpeed = MAX_TRANSLATION / dt;
+        float maxSpeed2 = maxSpeed * maxSpeed;
+        float[] vx = store.vx, vy = store.vy;
+        for (int i = 0; i < store.count; i++) {
+            float speed2 = vx[i] * vx[i] + vy[i] * vy[i];
+            if (speed2 > maxSpeed2) {
+                float scale = maxSpeed / (float) Math.sqrt(speed2);
+                vx[i] *= scale;
+                vy[i] *= scale;
+            }
+        }
+    }
+}
@@ -6,10 +6,7 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
-import io.github.gravitygame.entities.BodyState;
-import io.github.gravitygame.entities.PhysicsBody;
 import io.github.gravitygame.managers.WorldStateManager;
 import io.github.gravitygame.utils.WorldState;
 
@@ -29,13 +26,68 @@ public class PhysicsRenderer {
     private static final float INNER_SHADOW_ALPHA = 0.35f;
     private static final float OUTER_GLOW_ALPHA = 0.4f;
     private static final int GLOW_SEGMENTS = 36;
+    private static final int GLOW_LAYERS = BodyBatch.GLOW_LAYERS;
+    
+    // Quality settings; lowered by the quality governor under load
+    private int glowLayers = GLOW_LAYERS;
+    private int circleSegments = GLOW_SEGMENTS;
     
     // Visual effect parameters
     private final Vector2 lightSource = new Vector2(1.0f, 1.0f).nor();
     private float effectTime = 0f;
     
+    // Reused for every body so drawing allocates nothing
+    private final Color scratchColor = new Color();
+    
+    // Single-draw-call path; the ShapeRenderer path remains as a fallback
+    private final BodyBatch bodyBatch;
+    private boolean batchedRendering = true;
+    // Inner shadow offset in body radii, for the batched path
+    private final Vector2 shadowOffset = new Vector2(lightSource).scl(-0.2f);
+    
+    // Displayed bodies after culling and clustering, rebuilt every frame
+    private final VisibleBodies visibleBodies = new VisibleBodies();
+    
     public PhysicsRenderer(WorldStateManager stateManager) {
         this.stateManager = stateManager;
+        this.bodyBatch = new BodyBatch();
+    }
+
+    /**
+     * Selects between drawing all bodies with one shader pass (the default) and
+     * the per-body ShapeRenderer circles. The shader pass is skipped anyway if
+     * it failed to compile.
+     */
+    public void setBatchedRendering(boolean batched) {
+        this.batchedRendering = batched;
+    }
+
+    public boolean isBatchedRendering() {
+        return batchedRendering && bodyBatch.isAvailable();
+    }
+
+    /**
+     * Sets how many glow rings surround each body, from 0 to 3. The batched
+     * path skips the dropped rings in its shader and shrinks each body's quad
+     * to the rings that are left.
+     */
+    public void setGlowLayers(int layers) {
+        this.glowLayers = MathUtils.clamp(layers, 0, GLOW_LAYERS);
+    }
+
+    public int getGlowLayers() {
+        return glowLayers;
+    }
+
+    /**
+     * Sets the segments of each circle drawn by the ShapeRenderer path.
+     */
+    public void setCircleSegments(int segments) {
+        this.circleSegments = MathUtils.clamp(segments, 6, GLOW_SEGMENTS);
+    }
+
+    public int getCircleSegments() {
+        return circleSegments;
     }
 
     public void setDebugRender(boolean debug) {
@@ -56,7 +108,40 @@ public class PhysicsRenderer {
         }
     }
 
-    public void renderBodies(ShapeRenderer renderer, Array<PhysicsBody> currentBodies) {
+    /**
+     * Bodies and cluster impostors drawn by the last {@link #renderBodies} call.
+     */
+    public int getDrawnBodyCount() {
+        return visibleBodies.size();
+    }
+
+    public void renderBodies(ShapeRenderer renderer) {
+        WorldState state = stateManager.getOldestState();
+        if (state != null) {
+            visibleBodies.update(state, renderer.getProjectionMatrix(), BodyBatch.extent(glowLayers),
+                Gdx.graphics.getWidth());
+            if (isBatchedRendering()) {
+                renderBatched(renderer);
+            } else {
+                renderShapes(renderer);
+            }
+        }
+        
+        // Debug rendering if enabled
+        if (debugRenderEnabled) {
+            renderer.begin(ShapeRenderer.ShapeType.Line);
+            renderCurrentState(renderer);
+            renderer.end();
+        }
+    }
+    
+    private void renderBatched(ShapeRenderer renderer) {
+        float pulse = 1.0f + 0.05f * MathUtils.sin(effectTime * 3f);
+        bodyBatch.render(visibleBodies, renderer.getProjectionMatrix(), BASE_OUTLINE_THICKNESS, shadowOffset,
+            pulse, OUTER_GLOW_ALPHA, glowLayers, INNER_SHADOW_ALPHA, GLOW_INTENSITY);
+    }
+    
+    private void renderShapes(ShapeRenderer renderer) {
         // Enable blending for all rendering
         Gdx.gl.glEnable(GL20.GL_BLEND);
         Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -78,105 +163,102 @@ public class PhysicsRenderer {
         renderOutlines(renderer);
         renderer.end();
         
-        // Debug rendering if enabled
-        if (debugRenderEnabled) {
-            renderer.begin(ShapeRenderer.ShapeType.Line);
-            renderCurrentState(renderer, currentBodies);
-            renderer.end();
-        }
-        
         // Reset line width
         Gdx.gl.glLineWidth(1.0f);
     }
     
     private void renderGlowEffects(ShapeRenderer renderer) {
-        WorldState state = stateManager.getOldestState();
-        if (state != null) {
-            for (BodyState body : state.getBodyStates()) {
-                Color glowColor = body.getColor().cpy();
-                float baseRadius = body.getRadius();
-                
-                // Multi-layered glow for depth
-                for (int i = 0; i < 3; i++) {
-                    float layerRadius = baseRadius * (1.15f + i * 0.15f);
-                    float alpha = OUTER_GLOW_ALPHA * (3 - i) / 3f;
-                    glowColor.a = alpha;
-                    renderer.setColor(glowColor);
-                    renderer.circle(body.getPosition().x, body.getPosition().y, layerRadius, GLOW_SEGMENTS);
-                }
+        VisibleBodies bodies = visibleBodies;
+        for (int body = 0; body < bodies.size(); body++) {
+            Color glowColor = bodies.getColor(body, scratchColor);
+            float baseRadius = bodies.getRadius(body);
+            
+            // Multi-layered glow for depth
+            for (int i = 0; i < glowLayers; i++) {
+                float layerRadius = baseRadius * (1.15f + i * 0.15f);
+                float alpha = OUTER_GLOW_ALPHA * (GLOW_LAYERS - i) / (float) GLOW_LAYERS;
+                glowColor.a = alpha;
+                renderer.setColor(glowColor);
+                renderer.circle(bodies.getX(body), bodies.getY(body), layerRadius, circleSegments);
             }
         }
     }
     
     private void renderFilledBodies(ShapeRenderer renderer) {
-        WorldState state = stateManager.getOldestState();
-        if (state != null) {
-            for (BodyState body : state.getBodyStates()) {
-                // Base color with slight adjustment for better visual appearance
-                Color fillColor = enhanceColor(body.getColor(), 0.9f);
-                fillColor.a = 0.9f;
-                renderer.setColor(fillColor);
-                renderer.circle(body.getPosition().x, body.getPosition().y, body.getRadius(), GLOW_SEGMENTS);
-            }
+        VisibleBodies bodies = visibleBodies;
+        for (int body = 0; body < bodies.size(); body++) {
+            // Base color with slight adjustment for better visual appearance
+            Color fillColor = enhanceColor(bodies.getColor(body, scratchColor), 0.9f);
+            fillColor.a = 0.9f;
+            renderer.setColor(fillColor);
+            renderer.circle(bodies.getX(body), bodies.getY(body), bodies.getRadius(body), circleSegments);
         }
     }
     
     private void renderInnerShadows(ShapeRenderer renderer) {
-        WorldState state = stateManager.getOldestState();
-        if (state != null) {
-            for (BodyState body : state.getBodyStates()) {
-                // Calculate shadow offset based on light direction
-                float shadowOffsetX = -lightSource.x * body.getRadius() * 0.2f;
-                float shadowOffsetY = -lightSource.y * body.getRadius() * 0.2f;
-                
-                // Draw shadow as partially transparent black
-                renderer.setColor(0, 0, 0, INNER_SHADOW_ALPHA);
-                renderer.circle(
-                    body.getPosition().x + shadowOffsetX,
-                    body.getPosition().y + shadowOffsetY,
-                    body.getRadius() * 0.85f,
-                    GLOW_SEGMENTS
-                );
-            }
+        VisibleBodies bodies = visibleBodies;
+        for (int body = 0; body < bodies.size(); body++) {
+            float radius = bodies.getRadius(body);
+            
+            // Calculate shadow offset based on light direction
+            float shadowOffsetX = -lightSource.x * radius * 0.2f;
+            float shadowOffsetY = -lightSource.y * radius * 0.2f;
+            
+            // Draw shadow as partially transparent black
+            renderer.setColor(0, 0, 0, INNER_SHADOW_ALPHA);
+            renderer.circle(
+                bodies.getX(body) + shadowOffsetX,
+                bodies.getY(body) + shadowOffsetY,
+                radius * 0.85f,
+                circleSegments
+            );
         }
     }
     
     private void renderOutlines(ShapeRenderer renderer) {
-        WorldState state = stateManager.getOldestState();
-        if (state != null) {
-            for (BodyState body : state.getBodyStates()) {
-                // Enhanced outline color (slightly brighter than base)
-                Color outlineColor = enhanceColor(body.getColor(), GLOW_INTENSITY);
-                renderer.setColor(outlineColor);
-                
-                // Pulse effect for outlines
-                float pulseAmount = 0.05f * MathUtils.sin(effectTime * 3f);
-                float radiusWithPulse = body.getRadius() * (1.0f + pulseAmount);
-                
-                renderer.circle(body.getPosition().x, body.getPosition().y, radiusWithPulse, GLOW_SEGMENTS);
-            }
+        VisibleBodies bodies = visibleBodies;
+        // Pulse effect for outlines
+        float pulseAmount = 0.05f * MathUtils.sin(effectTime * 3f);
+        
+        for (int body = 0; body < bodies.size(); body++) {
+            // Enhanced outline color (slightly brighter than base)
+            Color outlineColor = enhanceColor(bodies.getColor(body, scratchColor), GLOW_INTENSITY);
+            renderer.setColor(outlineColor);
+            
+            float radiusWithPulse = bodies.getRadius(body) * (1.0f + pulseAmount);
+            
+            renderer.circle(bodies.getX(body), bodies.getY(body), radiusWithPulse, circleSegments);
         }
     }
     
-    private void renderCurrentState(ShapeRenderer renderer, Array<PhysicsBody> currentBodies) {
+    /**
+     * Outlines the most recent captured state, i.e. where the simulation is now
+     * rather than where the display is.
+     */
+    private void renderCurrentState(ShapeRenderer renderer) {
+        WorldState state = stateManager.getMostRecentState();
+        if (state == null) return;
         renderer.setColor(1, 0.3f, 0.3f, 0.6f);
-        for (PhysicsBody body : currentBodies) {
-            renderer.circle(body.getPosition().x, body.getPosition().y, body.getRadius(), GLOW_SEGMENTS);
+        for (int body = 0; body < state.size(); body++) {
+            renderer.circle(state.getX(body), state.getY(body), state.getRadius(body), circleSegments);
         }
     }
     
     /**
-     * Enhances a color by increasing its brightness while preserving hue.
+     * Enhances a color in place by increasing its brightness while preserving hue.
      * 
-     * @param original The original color
+     * @param enhanced The color to adjust
      * @param factor Brightness multiplier (>1 brightens, <1 darkens)
-     * @return Enhanced color
+     * @return The adjusted color
      */
-    private Color enhanceColor(Color original, float factor) {
-        Color enhanced = original.cpy();
+    private Color enhanceColor(Color enhanced, float factor) {
         enhanced.r = MathUtils.clamp(enhanced.r * factor, 0, 1);
         enhanced.g = MathUtils.clamp(enhanced.g * factor, 0, 1);
         enhanced.b = MathUtils.clamp(enhanced.b * factor, 0, 1);
         return enhanced;
     }
+
+    public void dispose() {
+        bodyBatch.dispose();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Entry point of the vectorised direct-sum kernel.
+ * This Java 8 build has no Vector API, so it always reports the kernel as
+ * unavailable and evaluates with the scalar kernel. On Java 17+ the multi-release jar replaces this class with
+ * the version under {@code src/main/java17}.
+ */
+final class SimdGravityKernel {
+    private SimdGravityKernel() {} // Static utility
+
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Adds the exact force on body {@code i} from every other body to its
+     * force accumulators.
+     */
+    static void accumulate(BodyStore store, int i, double phase) {
+        GravityManager.accumulateDirect(store, i, phase);
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.gravitygame.physics;
+
+import java.util.Arrays;
+
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Uniform grid over the bodies of one frame, hashed into a bucket table sized
+ * to the body count. Cells are as wide as the largest body's diameter, so any
+ * two overlapping bodies are in the same or adjacent cells. Bodies are
+ * counting-sorted by bucket into flat arrays, so rebuilding allocates nothing
+ * once the arrays have grown.
+ */
+final class SpatialHash {
+    // Keeps the grid usable when every body is tiny or the frame is empty
+    private static final float MIN_CELL_SIZE = 1f;
+
+    private float inverseCellSize = 1f;
+    private int bucketMask = 0;
+
+    // Per body: cell coordinates
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    // Bodies ordered by bucket; bucket b holds sorted[bucketStart[b] .. bucketStart[b + 1])
+    private int[] sorted = new int[0];
+    private int[] bucketStart = new int[1];
+    private int[] bodyBucket = new int[0];
+
+    void build(WorldState state) {
+        int count = state.size();
+        ensureCapacity(count);
+
+        float maxRadius = 0;
+        for (int i = 0; i < count; i++) {
+            maxRadius = Math.max(maxRadius, state.getRadius(i));
+        }
+        inverseCellSize = 1f / Math.max(2 * maxRadius, MIN_CELL_SIZE);
+
+        int buckets = bucketMask + 1;
+        Arrays.fill(bucketStart, 0, buckets + 1, 0);
+        for (int i = 0; i < count; i++) {
+            cellX[i] = (int) Math.floor(state.getX(i) * inverseCellSize);
+            cellY[i] = (int) Math.floor(state.getY(i) * inverseCellSize);
+            int bucket = bucketOf(cellX[i], cellY[i]);
+            bodyBucket[i] = bucket;
+            bucketStart[bucket + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // Fill from the back so each bucket keeps ascending body order
+        for (int i = count - 1; i >= 0; i--) {
+            sorted[--bucketStart[bodyBucket[i] + 1]] = i;
+        }
+        // The fill shifted every end down to its bucket's start; shift back
+        System.arraycopy(bucketStart, 1, bucketStart, 0, buckets);
+        bucketStart[buckets] = count;
+    }
+
+    int cellX(int body) { return cellX[body]; }
+    int cellY(int body) { return cellY[body]; }
+
+    int bucketOf(int x, int y) {
+        return (x * 73856093 ^ y * 19349663) & bucketMask;
+    }
+
+    int bucketStart(int bucket) { return bucketStart[bucket]; }
+    int bucketEnd(int bucket) { return bucketStart[bucket + 1]; }
+    int bodyAt(int position) { return sorted[position]; }
+
+    private void ensureCapacity(int count) {
+        // At least twice as many buckets as bodies keeps unrelated cells apart
+        int buckets = Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1;
+        if (buckets != bucketMask + 1) {
+            bucketMask = buckets - 1;
+            if (bucketStart.length < buckets + 1) {
+                bucketStart = new int[buckets + 1];
+            }
+        }
+        if (cellX.length < count) {
+            cellX = new int[count];
+            cellY = new int[count];
+            sorted = new int[count];
+            bodyBucket = new int[count];
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.gravitygame.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Trails drawn into a persistent framebuffer: each frame only the segments
+ * for newly arrived points are added and the whole buffer is faded by a
+ * constant alpha, so the cost per frame depends on the body count but not on
+ * the trail length. The buffer keeps the view it was drawn with; camera pans
+ * shift it by whole pixels and zooms resample it, and the residual offset is
+ * applied when it is composited.
+ */
+final class TrailAccumulator implements Disposable {
+    // Share of the buffer's brightness removed each frame
+    private static final float FADE_ALPHA = 0.03f;
+    // Subtracted after the fade so faint trails reach zero despite 8-bit rounding
+    private static final float FADE_FLOOR = 1f / 255f;
+    private static final float SEGMENT_ALPHA = 0.9f;
+
+    private final SpriteBatch batch = new SpriteBatch();
+    // World view of the buffer, and its pixel grid
+    private final Matrix4 bufferProjection = new Matrix4();
+    private final Matrix4 pixelProjection = new Matrix4();
+    private final Color segmentColor = new Color();
+    private FrameBuffer front;
+    private FrameBuffer back;
+
+    // View the front buffer holds, in world units
+    private float viewX;
+    private float viewY;
+    private float viewZoom;
+    private float viewWidth;
+    private float viewHeight;
+
+    private int drawnEpoch = -1;
+    private long drawnSerial = 0;
+
+    void render(TrailCache trails, OrthographicCamera camera, ShapeRenderer renderer) {
+        int width = Gdx.graphics.getBackBufferWidth();
+        int height = Gdx.graphics.getBackBufferHeight();
+        if (width <= 0 || height <= 0) return;
+
+        if (ensureBuffers(width, height) || trails.epoch() != drawnEpoch) {
+            restart(trails, camera);
+        } else if (viewZoom != camera.zoom || viewWidth != camera.viewportWidth
+                || viewHeight != camera.viewportHeight) {
+            resample(camera);
+        } else if (viewX != camera.position.x || viewY != camera.position.y) {
+            shift(camera, width, height);
+        }
+
+        front.begin();
+        fade(renderer, width, height);
+        drawNewSegments(trails, renderer);
+        front.end();
+
+        composite(camera);
+        renderer.setProjectionMatrix(camera.combined);
+    }
+
+    /**
+     * (Re)creates the buffers when the back buffer size changes.
+     *
+     * @return true if the buffers are new
+     */
+    private boolean ensureBuffers(int width, int height) {
+        if (front != null && front.getWidth() == width && front.getHeight() == height) return false;
+        disposeBuffers();
+        front = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        back = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        return true;
+    }
+
+    /**
+     * Clears the buffer and redraws the whole cached trail once.
+     */
+    private void restart(TrailCache trails, OrthographicCamera camera) {
+        front.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        front.end();
+        setView(camera.position.x, camera.position.y, camera);
+        drawnEpoch = trails.epoch();
+        drawnSerial = trails.firstSerial();
+    }
+
+    /**
+     * Zoom changed: resamples the buffer into the camera's current view.
+     */
+    private void resample(OrthographicCamera camera) {
+        float width = viewWidth * viewZoom;
+        float height = viewHeight * viewZoom;
+        copyToBack(camera.combined, viewX - width / 2, viewY - height / 2, width, height, TextureFilter.Linear);
+        setView(camera.position.x, camera.position.y, camera);
+    }
+
+    /**
+     * Pan only: moves the buffer by whole pixels, so repeated pans never blur
+     * it. The remainder stays in the buffer's view and is applied on composite.
+     */
+    private void shift(OrthographicCamera camera, int width, int height) {
+        float pixelX = viewWidth * viewZoom / width;
+        float pixelY = viewHeight * viewZoom / height;
+        int dx = Math.round((camera.position.x - viewX) / pixelX);
+        int dy = Math.round((camera.position.y - viewY) / pixelY);
+        if (dx == 0 && dy == 0) return;
+
+        copyToBack(pixelProjection.setToOrtho2D(0, 0, width, height), -dx, -dy, width, height,
+            TextureFilter.Nearest);
+        setView(viewX + dx * pixelX, viewY + dy * pixelY, camera);
+    }
+
+    private void copyToBack(Matrix4 projection, float x, float y, float width, float height,
+                            TextureFilter filter) {
+        Texture texture = front.getColorBufferTexture();
+        texture.setFilter(filter, filter);
+        back.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(projection);
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(texture, x, y, width, height, 0, 0, 1, 1);
+        batch.end();
+        batch.enableBlending();
+        back.end();
+
+        FrameBuffer previous = front;
+        front = back;
+        back = previous;
+    }
+
+    private void setView(float x, float y, OrthographicCamera camera) {
+        viewX = x;
+        viewY = y;
+        viewZoom = camera.zoom;
+        viewWidth = camera.viewportWidth;
+        viewHeight = camera.viewportHeight;
+        float width = viewWidth * viewZoom;
+        float height = viewHeight * viewZoom;
+        bufferProjection.setToOrtho2D(viewX - width / 2, viewY - height / 2, width, height);
+    }
+
+    /**
+     * Scales the buffer (premultiplied) towards transparent, then subtracts a
+     * small floor.
+     */
+    private void fade(ShapeRenderer renderer, int width, int height) {
+        renderer.setProjectionMatrix(pixelProjection.setToOrtho2D(0, 0, width, height));
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_ZERO, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        renderer.begin(ShapeRenderer.ShapeType.Filled);
+        renderer.setColor(0, 0, 0, FADE_ALPHA);
+        renderer.rect(0, 0, width, height);
+        renderer.end();
+
+        Gdx.gl.glBlendEquation(GL20.GL_FUNC_REVERSE_SUBTRACT);
+        Gdx.gl.glBlendFunc(GL20.GL_ONE, GL20.GL_ONE);
+        renderer.begin(ShapeRenderer.ShapeType.Filled);
+        renderer.setColor(FADE_FLOOR, FADE_FLOOR, FADE_FLOOR, FADE_FLOOR);
+        renderer.rect(0, 0, width, height);
+        renderer.end();
+        Gdx.gl.glBlendEquation(GL20.GL_FUNC_ADD);
+    }
+
+    /**
+     * Draws the segments ending at points that arrived since the last frame.
+     */
+    private void drawNewSegments(TrailCache trails, ShapeRenderer renderer) {
+        long first = trails.firstSerial();
+        long end = trails.endSerial();
+        // Points that already expired were never drawn; skip straight to the oldest kept one
+        long from = Math.max(drawnSerial, first + 1);
+        drawnSerial = end;
+        if (from >= end) return;
+
+        // Premultiplied colour, with alpha accumulating like a normal blend
+        Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA,
+            GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        renderer.setProjectionMatrix(bufferProjection);
+        renderer.begin(ShapeRenderer.ShapeType.Line);
+        for (int body = 0; body < trails.bodyCount(); body++) {
+            Color.abgr8888ToColor(segmentColor, trails.getPackedColor(body));
+            renderer.setColor(segmentColor.r, segmentColor.g, segmentColor.b, SEGMENT_ALPHA);
+            for (long serial = from; serial < end; serial++) {
+                int point = (int) (serial - first);
+                renderer.line(trails.getX(body, point - 1), trails.getY(body, point - 1),
+                    trails.getX(body, point), trails.getY(body, point));
+            }
+        }
+        renderer.end();
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * Draws the buffer over the scene at the view it holds.
+     */
+    private void composite(OrthographicCamera camera) {
+        Texture texture = front.getColorBufferTexture();
+        texture.setFilter(TextureFilter.Linear, TextureFilter.Linear);
+        float width = viewWidth * viewZoom;
+        float height = viewHeight * viewZoom;
+        batch.setProjectionMatrix(camera.combined);
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.begin();
+        batch.draw(texture, viewX - width / 2, viewY - height / 2, width, height, 0, 0, 1, 1);
+        batch.end();
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    private void disposeBuffers() {
+        if (front != null) front.dispose();
+        if (back != null) back.dispose();
+        front = null;
+        back = null;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffers();
+        batch.dispose();
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.gravitygame.physics;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Per-body trail polylines kept in step with the displayed history. Each body
+ * owns a contiguous ring of points, so appending a frame writes one point per
+ * body and dropping the oldest frame only moves the shared ring start; nothing
+ * is rebuilt from the history unless it is replaced wholesale.
+ */
+final class TrailCache implements WorldStateManager.HistoryListener {
+    private final WorldStateManager worldStateManager;
+    private final int capacity;
+
+    // Point p of body b is at [b * capacity + (start + p) % capacity]
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private UUID[] ids = new UUID[0];
+    private float[] colors = new float[0];
+    private int bodyCount = 0;
+    private int start = 0;
+    private int length = 0;
+    // Points appended since the last reset, and the count of resets so far
+    private long appended = 0;
+    private int epoch = 0;
+
+    TrailCache(WorldStateManager worldStateManager, int capacity) {
+        this.worldStateManager = worldStateManager;
+        this.capacity = capacity;
+        worldStateManager.addHistoryListener(this);
+        historyReset();
+    }
+
+    @Override
+    public void stateAdded(WorldState state) {
+        if (!matches(state)) {
+            // The body set changed outside a rebuild; trails restart at this frame
+            resetBodies(state);
+        }
+        if (length == capacity) {
+            start = (start + 1) % capacity;
+            length--;
+        }
+        int point = (start + length) % capacity;
+        for (int body = 0; body < bodyCount; body++) {
+            int index = body * capacity + point;
+            x[index] = state.getX(body);
+            y[index] = state.getY(body);
+            colors[body] = state.getPackedColor(body);
+        }
+        length++;
+        appended++;
+    }
+
+    @Override
+    public void oldestStateRemoved() {
+        if (length == 0) return;
+        start = (start + 1) % capacity;
+        length--;
+    }
+
+    @Override
+    public void historyReset() {
+        bodyCount = 0;
+        start = 0;
+        length = 0;
+        appended = 0;
+        epoch++;
+        int size = worldStateManager.getHistorySize();
+        for (int i = 0; i < size; i++) {
+            stateAdded(worldStateManager.getState(i));
+        }
+    }
+
+    int bodyCount() {
+        return bodyCount;
+    }
+
+    /**
+     * Number of points in every body's trail, oldest first.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Changes whenever the trails restart, so incremental consumers know to
+     * start over.
+     */
+    int epoch() {
+        return epoch;
+    }
+
+    /**
+     * Serial number of the oldest point; point {@code p} has serial
+     * {@code firstSerial() + p}, and serials keep counting up until the next
+     * epoch.
+     */
+    long firstSerial() {
+        return appended - length;
+    }
+
+    /**
+     * Serial number the next appended point will get.
+     */
+    long endSerial() {
+        return appended;
+    }
+
+    float getPackedColor(int body) {
+        return colors[body];
+    }
+
+    float getX(int body, int point) {
+        return x[body * capacity + (start + point) % capacity];
+    }
+
+    float getY(int body, int point) {
+        return y[body * capacity + (start + point) % capacity];
+    }
+
+    private boolean matches(WorldState state) {
+        if (state.size() != bodyCount) return false;
+        for (int body = 0; body < bodyCount; body++) {
+            if (!Objects.equals(state.getId(body), ids[body])) return false;
+        }
+        return true;
+    }
+
+    private void resetBodies(WorldState state) {
+        bodyCount = state.size();
+        start = 0;
+        length = 0;
+        appended = 0;
+        epoch++;
+        if (ids.length < bodyCount) {
+            int bodyCapacity = Math.max(bodyCount, ids.length * 2);
+            x = new float[bodyCapacity * capacity];
+            y = new float[bodyCapacity * capacity];
+            ids = new UUID[bodyCapacity];
+            colors = new float[bodyCapacity];
+        }
+        for (int body = 0; body < bodyCount; body++) {
+            ids[body] = state.getId(body);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Screen-space decimation of the cached trails. Each body keeps the points of
+ * its trail that cannot be dropped without the polyline moving by more than
+ * a tolerance in pixels ({@link #DEFAULT_TOLERANCE_PIXELS} unless set); the
+ * tolerance is fixed per zoom bucket (a power of two of world units per
+ * pixel), so the decimation only starts over when the zoom or the tolerance
+ * changes. New points are decided as they arrive, with a
+ * greedy corridor test against the last kept point.
+ */
+final class TrailLod {
+    // Largest allowed deviation of the simplified trail
+    static final float DEFAULT_TOLERANCE_PIXELS = 0.75f;
+    // Longest run of dropped points; bounds the work per new point
+    private static final int MAX_RUN = 32;
+
+    private final int capacity;
+    private float tolerancePixels = DEFAULT_TOLERANCE_PIXELS;
+
+    private int epoch = -1;
+    private int bucket = Integer.MIN_VALUE;
+    private float tolerance2 = 0;
+    private long processedSerial = 0;
+
+    // Per body: ring of kept point serials, at [b * capacity + (keptStart[b] + k) % capacity].
+    // Stored as ints; serials restart every epoch
+    private int[] kept = new int[0];
+    private int[] keptStart = new int[0];
+    private int[] keptLength = new int[0];
+    private int bodyCapacity = 0;
+
+    TrailLod(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets the largest deviation of the simplified trail, in pixels. A change
+     * starts the decimation over on the next update.
+     */
+    void setTolerance(float pixels) {
+        if (pixels == tolerancePixels) return;
+        tolerancePixels = pixels;
+        bucket = Integer.MIN_VALUE;
+    }
+
+    float getTolerance() {
+        return tolerancePixels;
+    }
+
+    /**
+     * Brings the kept points up to date with the cache for the given pixel size.
+     *
+     * @param pixelSize World units per screen pixel
+     */
+    void update(TrailCache trails, float pixelSize) {
+        int newBucket = (int) Math.ceil(Math.log(pixelSize) / Math.log(2));
+        long first = trails.firstSerial();
+        long end = trails.endSerial();
+        if (trails.epoch() != epoch || newBucket != bucket) {
+            epoch = trails.epoch();
+            bucket = newBucket;
+            float tolerance = tolerancePixels * (float) Math.pow(2, bucket);
+            tolerance2 = tolerance * tolerance;
+            reset(trails.bodyCount(), first);
+            processedSerial = first + 1;
+        }
+        if (end <= first) return;
+
+        long from = Math.max(processedSerial, first + 1);
+        for (int body = 0; body < trails.bodyCount(); body++) {
+            // Drop kept points that expired, keeping the newest expired one as the anchor
+            while (keptLength[body] > 1 && keptSerial(body, 1) <= first) {
+                keptStart[body] = (keptStart[body] + 1) % capacity;
+                keptLength[body]--;
+            }
+            for (long serial = from; serial < end; serial++) {
+                consider(trails, body, first, serial);
+            }
+        }
+        processedSerial = end;
+    }
+
+    int keptCount(int body) {
+        return keptLength[body];
+    }
+
+    /**
+     * Serial of the k-th kept point of a body, oldest first. May be older than
+     * the cache's first point, which then stands in for it.
+     */
+    long keptSerial(int body, int k) {
+        return kept[body * capacity + (keptStart[body] + k) % capacity];
+    }
+
+    /**
+     * Keeps the point before {@code serial} if the straight segment from the
+     * last kept point to {@code serial} would stray too far from the points in
+     * between.
+     */
+    private void consider(TrailCache trails, int body, long first, long serial) {
+        long anchor = Math.max(keptSerial(body, keptLength[body] - 1), first);
+        if (serial - anchor <= 1) return;
+
+        int a = (int) (anchor - first);
+        int b = (int) (serial - first);
+        boolean keep = serial - anchor > MAX_RUN;
+        if (!keep) {
+            float ax = trails.getX(body, a), ay = trails.getY(body, a);
+            float dx = trails.getX(body, b) - ax, dy = trails.getY(body, b) - ay;
+            float length2 = dx * dx + dy * dy;
+            for (int p = a + 1; p < b && !keep; p++) {
+                float px = trails.getX(body, p) - ax, py = trails.getY(body, p) - ay;
+                float cross = px * dy - py * dx;
+                // Squared distance from the segment's line, or from the anchor if the segment is a point
+                float distance2 = length2 > 0 ? cross * cross / length2 : px * px + py * py;
+                keep = distance2 > tolerance2;
+            }
+        }
+        if (keep) {
+            push(body, serial - 1);
+        }
+    }
+
+    private void push(int body, long serial) {
+        if (keptLength[body] == capacity) {
+            keptStart[body] = (keptStart[body] + 1) % capacity;
+            keptLength[body]--;
+        }
+        kept[body * capacity + (keptStart[body] + keptLength[body]) % capacity] = (int) serial;
+        keptLength[body]++;
+    }
+
+    private void reset(int bodyCount, long first) {
+        if (bodyCount > bodyCapacity) {
+            bodyCapacity = Math.max(bodyCount, bodyCapacity * 2);
+            kept = new int[bodyCapacity * capacity];
+            keptStart = new int[bodyCapacity];
+            keptLength = new int[bodyCapacity];
+        }
+        for (int body = 0; body < bodyCount; body++) {
+            keptStart[body] = 0;
+            keptLength[body] = 0;
+            push(body, first);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package io.github.gravitygame.physics;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import io.github.gravitygame.utils.Log;
+import io.github.gravitygame.utils.StateBuffer;
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Cheap forward prediction of body paths, run on a thread of its own. Instead
+ * of fast-forwarding the real simulation it uses semi-implicit Euler on a
+ * coarse step, and each body only feels its few strongest attractors among the
+ * heaviest bodies. The predicted path is kept between requests: as the display
+ * advances, points it has passed are dropped and the tail is integrated
+ * further, with a full re-prediction from the real state every
+ * {@link #RESYNC_INTERVAL} seconds or when the timeline or body set changes.
+ */
+final class TrajectoryPredictor implements Runnable {
+    static final float DEFAULT_HORIZON = 3.0f;
+    // Coarse step, five captures long
+    private static final float STEP = 0.05f;
+    // Heaviest bodies considered as attractors, and how many of them each body keeps
+    private static final int CANDIDATES = 16;
+    private static final int ATTRACTORS = 4;
+    // Seconds before drift is discarded by predicting again from the real state
+    private static final float RESYNC_INTERVAL = 1.0f;
+
+    /**
+     * One published prediction: {@link #length()} points per body, nearest first.
+     */
+    static final class Paths {
+        private int bodyCount = 0;
+        private int length = 0;
+        private int stride = 0;
+        private int generation = -1;
+        private float[] x = new float[0];
+        private float[] y = new float[0];
+        private float[] colors = new float[0];
+        private UUID[] ids = new UUID[0];
+
+        int bodyCount() { return bodyCount; }
+        int length() { return length; }
+        int getGeneration() { return generation; }
+        UUID getId(int body) { return ids[body]; }
+        float getPackedColor(int body) { return colors[body]; }
+        float getX(int body, int point) { return x[body * stride + point]; }
+        float getY(int body, int point) { return y[body * stride + point]; }
+    }
+
+    private final Object lock = new Object();
+    private volatile boolean running = false;
+    private volatile float horizon = DEFAULT_HORIZON;
+    private Thread thread;
+
+    // Guarded by lock: the latest request and the triple-buffered results
+    private final StateBuffer request = new StateBuffer(1, 64);
+    private boolean requested = false;
+    private Paths front = new Paths();
+    private Paths middle = new Paths();
+    private boolean fresh = false;
+
+    // Worker only
+    private final StateBuffer working = new StateBuffer(1, 64);
+    private Paths back = new Paths();
+    private int capacity = 0;
+    private int bodyCount = 0;
+    private int generation = -1;
+    private float usedHorizon = 0;
+    private double resyncTime = 0;
+    private double lastRequestTime = 0;
+    private UUID[] ids = new UUID[0];
+    private float[] colors = new float[0];
+    private float[] mass = new float[0];
+    private int[] attractors = new int[0];
+    private int[] candidates = new int[CANDIDATES];
+    // State at the end of the predicted path
+    private float[] tailX = new float[0];
+    private float[] tailY = new float[0];
+    private float[] tailVx = new float[0];
+    private float[] tailVy = new float[0];
+    private double tailTime = 0;
+    // Path ring; point p of body b is at [b * capacity + (start + p) % capacity]
+    private float[] pathX = new float[0];
+    private float[] pathY = new float[0];
+    private double[] pathTime = new double[0];
+    private int start = 0;
+    private int length = 0;
+
+    void start() {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this, "Trajectory Predictor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        if (thread == null) return;
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    void setHorizon(float seconds) {
+        horizon = Math.max(STEP, seconds);
+    }
+
+    float getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Asks for the paths starting at the given state, replacing any request
+     * the worker has not picked up yet. Called on the render thread.
+     */
+    void submit(WorldState state) {
+        synchronized (lock) {
+            request.clear();
+            request.capture(state);
+            requested = true;
+            lock.notify();
+        }
+    }
+
+    /**
+     * Latest published paths. Stays valid on the render thread until the next
+     * call.
+     */
+    Paths latest() {
+        synchronized (lock) {
+            if (fresh) {
+                Paths previous = front;
+                front = middle;
+                middle = previous;
+                fresh = false;
+            }
+            return front;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                synchronized (lock) {
+                    while (!requested) {
+                        lock.wait();
+                    }
+                    working.clear();
+                    working.capture(request.oldest());
+                    requested = false;
+                }
+                predict(working.oldest());
+                synchronized (lock) {
+                    Paths previous = middle;
+                    middle = back;
+                    back = previous;
+                    fresh = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        } catch (RuntimeException e) {
+            running = false;
+            Log.error("Trajectory Predictor", "Prediction stopped", e);
+        }
+    }
+
+    private void predict(WorldState state) {
+        double time = state.getTime();
+        float currentHorizon = horizon;
+        if (needsResync(state, currentHorizon)) {
+            resync(state, currentHorizon);
+        } else {
+            // Drop what the display has passed
+            while (length > 0 && pathTime[start] < time) {
+                start = (start + 1) % capacity;
+                length--;
+            }
+            if (length == 0) {
+                resync(state, currentHorizon);
+            }
+        }
+        lastRequestTime = time;
+        while (tailTime < time + currentHorizon && length < capacity) {
+            step();
+            append();
+        }
+        publish();
+    }
+
+    private boolean needsResync(WorldState state, float currentHorizon) {
+        double time = state.getTime();
+        if (state.getGeneration() != generation || state.size() != bodyCount) return true;
+        if (currentHorizon != usedHorizon || time < lastRequestTime) return true;
+        if (time - resyncTime >= RESYNC_INTERVAL || length == 0) return true;
+        for (int i = 0; i < bodyCount; i++) {
+            if (!Objects.equals(state.getId(i), ids[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Restarts the path from the real state and picks each body's attractors.
+     */
+    private void resync(WorldState state, float currentHorizon) {
+        bodyCount = state.size();
+        generation = state.getGeneration();
+        usedHorizon = currentHorizon;
+        resyncTime = state.getTime();
+        tailTime = resyncTime;
+        ensureCapacity(bodyCount, (int) Math.ceil(currentHorizon / STEP) + 1);
+
+        for (int i = 0; i < bodyCount; i++) {
+            ids[i] = state.getId(i);
+            colors[i] = state.getPackedColor(i);
+            mass[i] = state.getMass(i);
+            tailX[i] = state.getX(i);
+            tailY[i] = state.getY(i);
+            tailVx[i] = state.getVelocityX(i);
+            tailVy[i] = state.getVelocityY(i);
+        }
+        selectAttractors();
+        start = 0;
+        length = 0;
+        append();
+    }
+
+    /**
+     * Keeps, per body, the {@link #ATTRACTORS} heaviest-pulling bodies among the
+     * {@link #CANDIDATES} most massive; unused entries are -1.
+     */
+    private void selectAttractors() {
+        int candidateCount = 0;
+        for (int i = 0; i < bodyCount; i++) {
+            // Insertion into a short list sorted by mass, heaviest first
+            if (candidateCount == CANDIDATES && mass[i] <= mass[candidates[CANDIDATES - 1]]) continue;
+            int slot = Math.min(candidateCount, CANDIDATES - 1);
+            while (slot > 0 && mass[candidates[slot - 1]] < mass[i]) {
+                candidates[slot] = candidates[slot - 1];
+                slot--;
+            }
+            candidates[slot] = i;
+            candidateCount = Math.min(candidateCount + 1, CANDIDATES);
+        }
+
+        for (int i = 0; i < bodyCount; i++) {
+            int base = i * ATTRACTORS;
+            for (int k = 0; k < ATTRACTORS; k++) {
+                attractors[base + k] = -1;
+            }
+            float weakest = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                int j = candidates[c];
+                if (j == i) continue;
+                float pull = pull(i, j);
+                if (attractors[base + ATTRACTORS - 1] >= 0 && pull <= weakest) continue;
+                // Insert by pull, strongest first
+                int slot = ATTRACTORS - 1;
+                while (slot > 0 && (attractors[base + slot - 1] < 0 || pull(i, attractors[base + slot - 1]) < pull)) {
+                    attractors[base + slot] = attractors[base + slot - 1];
+                    slot--;
+                }
+                attractors[base + slot] = j;
+                int last = attractors[base + ATTRACTORS - 1];
+                weakest = last >= 0 ? pull(i, last) : 0;
+            }
+        }
+    }
+
+    private float pull(int i, int j) {
+        float dx = tailX[j] - tailX[i];
+        float dy = tailY[j] - tailY[i];
+        float distance2 = Math.max(dx * dx + dy * dy, GravityManager.MIN_DISTANCE * GravityManager.MIN_DISTANCE);
+        return mass[j] / distance2;
+    }
+
+    /**
+     * One semi-implicit Euler step of the tail state. Only the radial pull is
+     * modelled; the dance term oscillates and mostly averages out over a step
+     * this coarse.
+     */
+    private void step() {
+        float minDistance = GravityManager.MIN_DISTANCE;
+        for (int i = 0; i < bodyCount; i++) {
+            float ax = 0, ay = 0;
+            float x = tailX[i], y = tailY[i];
+            for (int k = 0; k < ATTRACTORS; k++) {
+                int j = attractors[i * ATTRACTORS + k];
+                if (j < 0) break;
+                float dx = tailX[j] - x;
+                float dy = tailY[j] - y;
+                float distance = (float) Math.sqrt(dx * dx + dy * dy);
+                if (distance < 0.01f) continue;
+                float effectiveDistance = Math.max(distance, minDistance);
+                float acceleration = GravityManager.G * mass[j] / (effectiveDistance * effectiveDistance);
+                ax += dx / distance * acceleration;
+                ay += dy / distance * acceleration;
+            }
+            tailVx[i] += ax * STEP;
+            tailVy[i] += ay * STEP;
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            tailX[i] += tailVx[i] * STEP;
+            tailY[i] += tailVy[i] * STEP;
+        }
+        tailTime += STEP;
+    }
+
+    private void append() {
+        int point = (start + length) % capacity;
+        for (int i = 0; i < bodyCount; i++) {
+            pathX[i * capacity + point] = tailX[i];
+            pathY[i * capacity + point] = tailY[i];
+        }
+        pathTime[point] = tailTime;
+        length++;
+    }
+
+    /**
+     * Copies the ring into the back result, unrolled so each body's points are
+     * contiguous and nearest first.
+     */
+    private void publish() {
+        Paths out = back;
+        if (out.ids.length < bodyCount || out.stride != capacity) {
+            int bodies = Math.max(bodyCount, out.ids.length);
+            out.x = new float[bodies * capacity];
+            out.y = new float[bodies * capacity];
+            out.colors = new float[bodies];
+            out.ids = new UUID[bodies];
+            out.stride = capacity;
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            int base = i * capacity;
+            for (int p = 0; p < length; p++) {
+                int index = base + (start + p) % capacity;
+                out.x[base + p] = pathX[index];
+                out.y[base + p] = pathY[index];
+            }
+            out.colors[i] = colors[i];
+            out.ids[i] = ids[i];
+        }
+        out.bodyCount = bodyCount;
+        out.length = length;
+        out.generation = generation;
+    }
+
+    private void ensureCapacity(int bodies, int points) {
+        if (ids.length < bodies) {
+            int bodyCapacity = Math.max(bodies, ids.length * 2);
+            ids = new UUID[bodyCapacity];
+            colors = new float[bodyCapacity];
+            mass = new float[bodyCapacity];
+            attractors = new int[bodyCapacity * ATTRACTORS];
+            tailX = new float[bodyCapacity];
+            tailY = new float[bodyCapacity];
+            tailVx = new float[bodyCapacity];
+            tailVy = new float[bodyCapacity];
+        }
+        if (points != capacity || pathX.length < ids.length * points) {
+            capacity = points;
+            pathTime = new double[points];
+            pathX = new float[ids.length * points];
+            pathY = new float[ids.length * points];
+        }
+    }
+}
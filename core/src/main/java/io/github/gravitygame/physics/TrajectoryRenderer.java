@@ -1,18 +1,13 @@
 package io.github.gravitygame.physics;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Queue;
-import java.util.UUID;
+import java.util.Objects;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
-import io.github.gravitygame.entities.BodyState;
-import io.github.gravitygame.entities.PhysicsBody;
 import io.github.gravitygame.managers.WorldStateManager;
 import io.github.gravitygame.utils.WorldState;
 
@@ -20,6 +15,20 @@ public class TrajectoryRenderer {
     // Toggle to enable/disable trajectory rendering.
     private boolean enabled = false;
     private final WorldStateManager worldStateManager;
+    private final TrailCache trails;
+    private final TrailLod trailLod = new TrailLod(WorldStateManager.MAX_STATES);
+    private final OrthographicCamera camera;
+    // Created on first use, since it needs framebuffers
+    private TrailAccumulator accumulator;
+    // Started on first use of ESTIMATED mode
+    private TrajectoryPredictor predictor;
+    private float predictionHorizon = TrajectoryPredictor.DEFAULT_HORIZON;
+    private double submittedTime = Double.NaN;
+    private int submittedGeneration = -1;
+    // Segments submitted by the last exact trail pass, after decimation and culling
+    private int lastSegmentCount = 0;
+    // Fraction of the history drawn by the exact trail pass, from the displayed state on
+    private float trailLength = 1f;
     private static final float TRAJECTORY_THICKNESS = 2.5f; // Thicker lines for trajectories
     
     // Colors for gradient effect
@@ -28,14 +37,25 @@ public class TrajectoryRenderer {
     
     // Prediction mode - determines which system to use
     private PredictionMode currentMode = PredictionMode.HISTORICAL;
+    private TrailMode trailMode = TrailMode.EXACT;
+    
+    // Reused while drawing so trails allocate nothing per frame
+    private final Color segmentColor = new Color();
     
     public enum PredictionMode {
         HISTORICAL,  // Use full historical data from WorldStateManager
         ESTIMATED    // Use lightweight trajectory estimation
     }
 
-    public TrajectoryRenderer(WorldStateManager manager) {
+    public enum TrailMode {
+        EXACT,       // Redraw every cached segment with its own fade
+        ACCUMULATED  // Add new segments to a fading framebuffer; cost independent of trail length
+    }
+
+    public TrajectoryRenderer(WorldStateManager manager, OrthographicCamera camera) {
         this.worldStateManager = manager;
+        this.camera = camera;
+        this.trails = new TrailCache(manager, WorldStateManager.MAX_STATES);
     }
     
     public void setEnabled(boolean enabled) {
@@ -55,24 +75,130 @@ public class TrajectoryRenderer {
     }
 
     /**
-     * Renders trajectories for each body using either the historical or estimated mode.
-     *
-     * @param renderer The ShapeRenderer used for drawing.
-     * @param currentBodies The current bodies in the simulation (used for estimation mode).
+     * Sets how far ahead ESTIMATED mode predicts, in simulation seconds.
      */
-    public void renderTrajectories(ShapeRenderer renderer, Array<PhysicsBody> currentBodies) {
-        renderHistoricalTrajectories(renderer);
+    public void setPredictionHorizon(float seconds) {
+        this.predictionHorizon = seconds;
+        if (predictor != null) {
+            predictor.setHorizon(seconds);
+        }
     }
-    
+
+    public float getPredictionHorizon() {
+        return predictionHorizon;
+    }
+
+    public int getLastSegmentCount() {
+        return lastSegmentCount;
+    }
+
+    public void setTrailMode(TrailMode mode) {
+        this.trailMode = mode;
+    }
+
+    public TrailMode getTrailMode() {
+        return trailMode;
+    }
+
+    /**
+     * Draws only the first {@code fraction} of each trail in EXACT mode,
+     * starting at the displayed state where the body is drawn and leaving out
+     * the newest states. The accumulated trails fade at a fixed rate and
+     * ignore this.
+     */
+    public void setTrailLength(float fraction) {
+        this.trailLength = Math.max(0f, Math.min(1f, fraction));
+    }
+
+    public float getTrailLength() {
+        return trailLength;
+    }
+
     /**
-     * Backward compatibility method for the original signature.
+     * Sets how far, in pixels, a decimated trail may stray from the exact one.
+     */
+    public void setTrailTolerance(float pixels) {
+        trailLod.setTolerance(pixels);
+    }
+
+    public float getTrailTolerance() {
+        return trailLod.getTolerance();
+    }
+
+    /**
+     * Renders trajectories for each body using either the historical or estimated
+     * mode. Both work from captured states only, since the live bodies belong to
+     * the simulation thread.
+     *
+     * @param renderer The ShapeRenderer used for drawing.
      */
     public void renderTrajectories(ShapeRenderer renderer) {
         if (currentMode == PredictionMode.HISTORICAL) {
             renderHistoricalTrajectories(renderer);
         } else {
-            Gdx.app.log("TrajectoryRenderer", "Warning: Called renderTrajectories without bodies but in ESTIMATED mode");
+            renderEstimatedTrajectories(renderer);
+        }
+    }
+
+    /**
+     * Predicted paths from the displayed state, computed in the background by
+     * {@link TrajectoryPredictor}. A new prediction is requested whenever the
+     * displayed state changes; until it arrives the previous one is drawn.
+     */
+    private void renderEstimatedTrajectories(ShapeRenderer renderer) {
+        WorldState displayed = worldStateManager.getOldestState();
+        if (displayed == null || worldStateManager.isStabilizing()) return;
+
+        if (predictor == null) {
+            predictor = new TrajectoryPredictor();
+            predictor.setHorizon(predictionHorizon);
+            predictor.start();
+        }
+        if (displayed.getTime() != submittedTime || displayed.getGeneration() != submittedGeneration) {
+            submittedTime = displayed.getTime();
+            submittedGeneration = displayed.getGeneration();
+            predictor.submit(displayed);
         }
+
+        TrajectoryPredictor.Paths paths = predictor.latest();
+        // Drop predictions from a superseded timeline
+        if (paths.getGeneration() != displayed.getGeneration() || paths.length() < 2) return;
+
+        Gdx.gl.glLineWidth(TRAJECTORY_THICKNESS);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        renderer.begin(ShapeRenderer.ShapeType.Line);
+
+        int length = paths.length();
+        for (int body = 0; body < paths.bodyCount(); body++) {
+            Color.abgr8888ToColor(segmentColor, paths.getPackedColor(body));
+
+            float fromX = paths.getX(body, 0);
+            float fromY = paths.getY(body, 0);
+            // Start at the body itself; the path's first point may be up to a step ahead
+            if (body < displayed.size() && Objects.equals(displayed.getId(body), paths.getId(body))) {
+                fromX = displayed.getX(body);
+                fromY = displayed.getY(body);
+            }
+            for (int i = 0; i < length; i++) {
+                float toX = paths.getX(body, i);
+                float toY = paths.getY(body, i);
+                // Fade towards the end of the horizon, where the estimate is least reliable
+                float segmentProgress = (float)i / (length - 1);
+                renderer.setColor(
+                    segmentColor.r,
+                    segmentColor.g,
+                    segmentColor.b,
+                    0.9f - (0.7f * segmentProgress)
+                );
+                renderer.line(fromX, fromY, toX, toY);
+                fromX = toX;
+                fromY = toY;
+            }
+        }
+
+        renderer.end();
+        Gdx.gl.glLineWidth(1.0f);
     }
 
     /**
@@ -88,70 +214,92 @@ public class TrajectoryRenderer {
         Gdx.gl.glEnable(GL20.GL_BLEND);
         Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
         
+        if (trailMode == TrailMode.ACCUMULATED) {
+            if (accumulator == null) {
+                accumulator = new TrailAccumulator();
+            }
+            accumulator.render(trails, camera, renderer);
+            Gdx.gl.glLineWidth(1.0f); // Reset line width
+            return;
+        }
+
         renderer.begin(ShapeRenderer.ShapeType.Line);
 
-        // Get all states from the queue
-        Queue<WorldState> history = worldStateManager.getHistoryQueue();
-        if (history.size() < 2) {
+        int length = trails.length();
+        if (length < 2) {
             renderer.end();
             Gdx.gl.glLineWidth(1.0f); // Reset line width
             return;
         }
         
-        WorldState[] historyArray = history.toArray(new WorldState[0]);
+        // The cache follows the history as frames arrive and expire, and the
+        // LOD keeps only the points that matter at this zoom
+        float pixelSize = camera.zoom * camera.viewportWidth / Gdx.graphics.getWidth();
+        trailLod.update(trails, pixelSize);
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float left = camera.position.x - halfWidth, right = camera.position.x + halfWidth;
+        float bottom = camera.position.y - halfHeight, top = camera.position.y + halfHeight;
+        long first = trails.firstSerial();
+        // The trails start at the displayed (oldest) state, where the bodies are
+        // drawn; shortening them leaves out the newest points from this one on
+        int last = (int) ((length - 1) * trailLength);
+        int segments = 0;
         
-        // Create maps to track body positions across states
-        Map<UUID, Vector2[]> bodyPositions = new HashMap<>();
-        Map<UUID, float[]> bodyColors = new HashMap<>();
-        
-        // First, gather all positions and colors for each body
-        for (int i = 0; i < historyArray.length; i++) {
-            for (BodyState body : historyArray[i].getBodyStates()) {
-                UUID id = body.getId();
-                
-                // Initialize the arrays for this body if they don't exist
-                if (!bodyPositions.containsKey(id)) {
-                    bodyPositions.put(id, new Vector2[historyArray.length]);
-                    bodyColors.put(id, new float[]{
-                        body.getColor().r,
-                        body.getColor().g,
-                        body.getColor().b,
-                        0.8f
-                    });
-                }
-                
-                // Store the position
-                bodyPositions.get(id)[i] = body.getPosition().cpy();
-            }
-        }
-        
-        // Now draw trajectories for each body
-        for (UUID id : bodyPositions.keySet()) {
-            Vector2[] positions = bodyPositions.get(id);
-            float[] color = bodyColors.get(id);
+        for (int body = 0; body < trails.bodyCount(); body++) {
+            Color.abgr8888ToColor(segmentColor, trails.getPackedColor(body));
             
-            // Draw a line between each consecutive non-null position with gradient effect
-            for (int i = 0; i < positions.length - 1; i++) {
-                if (positions[i] != null && positions[i+1] != null) {
+            // Walk the kept points, then finish at the last point drawn
+            int from = 0;
+            float fromX = trails.getX(body, 0);
+            float fromY = trails.getY(body, 0);
+            int keptCount = trailLod.keptCount(body);
+            for (int k = 0; k <= keptCount && from < last; k++) {
+                int to = k < keptCount ? (int) Math.max(trailLod.keptSerial(body, k) - first, 0) : last;
+                to = Math.min(to, last);
+                if (to <= from) continue;
+                float toX = trails.getX(body, to);
+                float toY = trails.getY(body, to);
+                
+                // Skip segments entirely to one side of the view
+                boolean visible = !(fromX < left && toX < left) && !(fromX > right && toX > right)
+                    && !(fromY < bottom && toY < bottom) && !(fromY > top && toY > top);
+                if (visible) {
                     // Create gradient effect - older segments fade out
-                    float segmentProgress = (float)i / (positions.length - 2);
+                    float segmentProgress = (float)from / Math.max(1, length - 2);
                     
                     // Custom color with gradient effect based on body's color
                     renderer.setColor(
-                        color[0],
-                        color[1],
-                        color[2],
+                        segmentColor.r,
+                        segmentColor.g,
+                        segmentColor.b,
                         0.9f - (0.4f * segmentProgress) // Fade out older segments
                     );
                     
-                    renderer.line(positions[i].x, positions[i].y, positions[i+1].x, positions[i+1].y);
+                    renderer.line(fromX, fromY, toX, toY);
+                    segments++;
                 }
+                from = to;
+                fromX = toX;
+                fromY = toY;
             }
         }
+        lastSegmentCount = segments;
 
         renderer.end();
         
         // Reset line width to default
         Gdx.gl.glLineWidth(1.0f);
     }
-}
\ No newline at end of file
+
+    public void dispose() {
+        if (predictor != null) {
+            predictor.stop();
+            predictor = null;
+        }
+        if (accumulator != null) {
+            accumulator.dispose();
+            accumulator = null;
+        }
+    }
+}
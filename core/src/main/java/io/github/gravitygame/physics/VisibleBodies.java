@@ -0,0 +1,187 @@
+package io.github.gravitygame.physics;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix4;
+
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * The bodies of the displayed frame that are worth drawing. Bodies outside
+ * the camera view are culled through a {@link BodyGrid}, and bodies smaller
+ * than {@link #MIN_BODY_PIXELS} on screen are merged per screen cell of
+ * {@link #CLUSTER_PIXELS} into one impostor at their mass-weighted centroid,
+ * with their mass-weighted colour and combined area. The list therefore never
+ * grows past what the screen can show, however many bodies there are.
+ */
+final class VisibleBodies {
+    // Bodies with a smaller on-screen radius are clustered
+    private static final float MIN_BODY_PIXELS = 1.5f;
+    // Side of a cluster cell on screen
+    private static final float CLUSTER_PIXELS = 4f;
+    // Impostors stay at least this large on screen so a cluster does not vanish
+    private static final float MIN_IMPOSTOR_PIXELS = 1f;
+
+    private final BodyGrid grid = new BodyGrid();
+    private final Color scratchColor = new Color();
+    private double indexedTime = Double.NaN;
+    private int indexedGeneration = -1;
+    private int indexedSize = -1;
+
+    // Output, one entry per drawn body or impostor
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] radius = new float[0];
+    private float[] color = new float[0];
+    private int count = 0;
+    private int clusters = 0;
+
+    // Cluster accumulation: open-addressing map from cell key to cluster slot
+    private long[] clusterKeys = new long[0];
+    private int[] clusterSlots = new int[0];
+    private int clusterMask = 0;
+    private float[] sumMass = new float[0];
+    private float[] sumX = new float[0];
+    private float[] sumY = new float[0];
+    private float[] sumArea = new float[0];
+    private float[] sumR = new float[0];
+    private float[] sumG = new float[0];
+    private float[] sumB = new float[0];
+
+    /**
+     * Rebuilds the list for the state as seen through an orthographic projection.
+     *
+     * @param extent How far a body's drawing reaches, in body radii
+     * @param screenWidth Viewport width in pixels
+     */
+    void update(WorldState state, Matrix4 projection, float extent, int screenWidth) {
+        if (state.getTime() != indexedTime || state.getGeneration() != indexedGeneration
+                || state.size() != indexedSize) {
+            grid.build(state);
+            indexedTime = state.getTime();
+            indexedGeneration = state.getGeneration();
+            indexedSize = state.size();
+        }
+
+        // Invert the orthographic projection to get the view rectangle
+        float scaleX = projection.val[Matrix4.M00], scaleY = projection.val[Matrix4.M11];
+        float offsetX = projection.val[Matrix4.M03], offsetY = projection.val[Matrix4.M13];
+        float left = (-1 - offsetX) / scaleX, right = (1 - offsetX) / scaleX;
+        float bottom = (-1 - offsetY) / scaleY, top = (1 - offsetY) / scaleY;
+        float pixelSize = (right - left) / Math.max(1, screenWidth);
+        float clusterSize = pixelSize * CLUSTER_PIXELS;
+        float minRadius = pixelSize * MIN_BODY_PIXELS;
+
+        count = 0;
+        clusters = 0;
+        ensureCapacity(state.size());
+        Arrays.fill(clusterKeys, Long.MIN_VALUE);
+
+        float pad = grid.maxRadius() * extent;
+        int c0 = grid.column(left - pad), c1 = grid.column(right + pad);
+        int r0 = grid.row(bottom - pad), r1 = grid.row(top + pad);
+        for (int row = r0; row <= r1; row++) {
+            for (int column = c0; column <= c1; column++) {
+                int cell = row * grid.columns() + column;
+                for (int p = grid.cellStart(cell); p < grid.cellEnd(cell); p++) {
+                    int body = grid.bodyAt(p);
+                    float bx = state.getX(body), by = state.getY(body);
+                    float r = state.getRadius(body);
+                    float reach = r * extent;
+                    if (bx + reach < left || bx - reach > right || by + reach < bottom || by - reach > top) {
+                        continue;
+                    }
+                    if (r >= minRadius) {
+                        add(bx, by, r, state.getPackedColor(body));
+                    } else {
+                        accumulate(state, body, bx, by, r, clusterSize);
+                    }
+                }
+            }
+        }
+        emitClusters(pixelSize);
+    }
+
+    int size() { return count; }
+    /** Impostors in the list, each standing in for several bodies. */
+    int clusterCount() { return clusters; }
+    float getX(int i) { return x[i]; }
+    float getY(int i) { return y[i]; }
+    float getRadius(int i) { return radius[i]; }
+    float getPackedColor(int i) { return color[i]; }
+
+    Color getColor(int i, Color out) {
+        Color.abgr8888ToColor(out, color[i]);
+        return out;
+    }
+
+    private void add(float bx, float by, float r, float packedColor) {
+        x[count] = bx;
+        y[count] = by;
+        radius[count] = r;
+        color[count] = packedColor;
+        count++;
+    }
+
+    private void accumulate(WorldState state, int body, float bx, float by, float r, float clusterSize) {
+        long key = (long) Math.floor(bx / clusterSize) << 32 ^ ((long) Math.floor(by / clusterSize) & 0xffffffffL);
+        int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & clusterMask;
+        while (clusterKeys[index] != Long.MIN_VALUE && clusterKeys[index] != key) {
+            index = (index + 1) & clusterMask;
+        }
+        int slot;
+        if (clusterKeys[index] == key) {
+            slot = clusterSlots[index];
+        } else {
+            slot = clusters++;
+            clusterKeys[index] = key;
+            clusterSlots[index] = slot;
+            sumMass[slot] = sumX[slot] = sumY[slot] = sumArea[slot] = 0;
+            sumR[slot] = sumG[slot] = sumB[slot] = 0;
+        }
+        float mass = Math.max(state.getMass(body), Float.MIN_NORMAL);
+        state.getColor(body, scratchColor);
+        sumMass[slot] += mass;
+        sumX[slot] += bx * mass;
+        sumY[slot] += by * mass;
+        sumArea[slot] += r * r;
+        sumR[slot] += scratchColor.r * mass;
+        sumG[slot] += scratchColor.g * mass;
+        sumB[slot] += scratchColor.b * mass;
+    }
+
+    private void emitClusters(float pixelSize) {
+        float minImpostor = pixelSize * MIN_IMPOSTOR_PIXELS;
+        for (int slot = 0; slot < clusters; slot++) {
+            float mass = sumMass[slot];
+            float r = Math.max((float) Math.sqrt(sumArea[slot]), minImpostor);
+            float packed = Color.toFloatBits(sumR[slot] / mass, sumG[slot] / mass, sumB[slot] / mass, 1f);
+            add(sumX[slot] / mass, sumY[slot] / mass, r, packed);
+        }
+    }
+
+    private void ensureCapacity(int bodies) {
+        if (x.length < bodies) {
+            int capacity = Math.max(bodies, x.length * 2);
+            x = new float[capacity];
+            y = new float[capacity];
+            radius = new float[capacity];
+            color = new float[capacity];
+            sumMass = new float[capacity];
+            sumX = new float[capacity];
+            sumY = new float[capacity];
+            sumArea = new float[capacity];
+            sumR = new float[capacity];
+            sumG = new float[capacity];
+            sumB = new float[capacity];
+        }
+        // At least twice as many map slots as possible clusters
+        int slots = Integer.highestOneBit(Math.max(1, bodies) * 2 - 1) << 1;
+        if (clusterKeys.length != slots) {
+            clusterKeys = new long[slots];
+            clusterSlots = new int[slots];
+            clusterMask = slots - 1;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package io.github.gravitygame.scenarios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.gravitygame.entities.BodyState;
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.physics.GravityManager;
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * A set of bodies to start a simulation from. Scenarios are either generated
+ * from a seed, so a run can be repeated exactly, or read from text with one
+ * body per line:
+ *
+ * <pre>x,y,vx,vy,radius,color</pre>
+ *
+ * where the colour is hex {@code rrggbbaa}. Blank lines and lines starting
+ * with {@code #} are skipped. Masses follow from the radii, as for bodies
+ * created in the game.
+ *
+ * <p>The generators scale with the body count, so the same scene can be stood
+ * up with a thousand bodies or a hundred thousand; {@link #generate} picks one
+ * by name.
+ */
+public final class Scenario {
+    /**
+     * Names accepted by {@link #generate}.
+     */
+    public static final String[] GENERATORS = {
+        "orbits", "galaxy", "plummer", "collision", "protoplanetary", "rings"
+    };
+
+    // Inner and outer edge of each ring band in planet radii, and its brightness
+    private static final float[][] RING_BANDS = {
+        { 1.5f, 1.9f, 0.55f },
+        { 2.0f, 2.6f, 0.95f },
+        { 2.75f, 3.15f, 0.8f },
+        { 3.45f, 3.55f, 0.9f }
+    };
+
+    private static final Color GALAXY_CORE = new Color(1f, 0.9f, 0.65f, 1f);
+    private static final Color GALAXY_EDGE = new Color(0.6f, 0.75f, 1f, 1f);
+    private static final Color SECOND_GALAXY_EDGE = new Color(1f, 0.65f, 0.8f, 1f);
+
+    private final Array<BodyState> bodies = new Array<>();
+
+    public int size() {
+        return bodies.size;
+    }
+
+    public BodyState get(int index) {
+        return bodies.get(index);
+    }
+
+    public void add(float x, float y, float vx, float vy, float radius, Color color) {
+        bodies.add(new BodyState(new Vector2(x, y), new Vector2(vx, vy), radius,
+            SimulationManager.calculateMass(radius), color, UUID.randomUUID()));
+    }
+
+    /**
+     * Queues every body for addition as one edit, so the history is
+     * re-simulated once whatever the body count. Before the first update, with
+     * no history yet, the bodies are placed directly and nothing is re-simulated.
+     */
+    public void addTo(SimulationManager simulationManager) {
+        simulationManager.addBodies(bodies);
+    }
+
+    public static boolean isGenerator(String name) {
+        return Arrays.asList(GENERATORS).contains(name);
+    }
+
+    /**
+     * Generates the named scenario.
+     *
+     * @throws IllegalArgumentException If the name is not one of {@link #GENERATORS}
+     */
+    public static Scenario generate(String name, int count, long seed) {
+        switch (name) {
+            case "orbits": return orbits(count, seed);
+            case "galaxy": return diskGalaxy(count, seed);
+            case "plummer": return plummerSphere(count, seed);
+            case "collision": return collidingGalaxies(count, seed);
+            case "protoplanetary": return protoplanetaryDisk(count, seed);
+            case "rings": return ringSystem(count, seed);
+            default: throw new IllegalArgumentException("Unknown scenario " + name
+                + "; expected one of " + String.join(", ", GENERATORS));
+        }
+    }
+
+    /**
+     * A star with {@code count - 1} small bodies on circular orbits around it,
+     * spread evenly over a disc whose area grows with the body count.
+     */
+    public static Scenario orbits(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        if (count <= 0) return scenario;
+
+        float starRadius = 40f;
+        scenario.add(0, 0, 0, 0, starRadius, Color.YELLOW);
+
+        int orbiters = count - 1;
+        float innerRadius = starRadius * 4;
+        float outerRadius = innerRadius + 40f * (float) Math.sqrt(orbiters);
+        float[] distances = new float[orbiters];
+        for (int i = 0; i < orbiters; i++) {
+            // Uniform over the disc's area
+            float u = random.nextFloat();
+            distances[i] = (float) Math.sqrt(innerRadius * innerRadius
+                + u * (outerRadius * outerRadius - innerRadius * innerRadius));
+        }
+        // Inside-out, so each orbit accounts for the mass within it
+        Arrays.sort(distances);
+
+        float enclosedMass = SimulationManager.calculateMass(starRadius);
+        Color color = new Color();
+        for (int i = 0; i < orbiters; i++) {
+            float radius = 2f + random.nextFloat() * 4f;
+            float distance = distances[i];
+            float angle = random.nextFloat() * MathUtils.PI2;
+            float speed = (float) Math.sqrt(GravityManager.G * enclosedMass / distance);
+            float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+            color.set(0.5f + random.nextFloat() * 0.5f, 0.5f + random.nextFloat() * 0.5f,
+                0.5f + random.nextFloat() * 0.5f, 1f);
+            scenario.add(cos * distance, sin * distance, -sin * speed, cos * speed, radius, color);
+            enclosedMass += SimulationManager.calculateMass(radius);
+        }
+        return scenario;
+    }
+
+    /**
+     * A rotating disc galaxy: a heavy core holding a fifth of the disc's mass,
+     * and {@code count - 1} stars whose surface density falls off exponentially
+     * with distance. Stars move on near-circular orbits about the mass inside
+     * them, with a little random motion so the disc is not perfectly cold.
+     */
+    public static Scenario diskGalaxy(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        scenario.addDisk(random, count, 0, 0, 0, 0, false, GALAXY_CORE, GALAXY_EDGE);
+        return scenario;
+    }
+
+    /**
+     * Two disc galaxies of half the bodies each, turning in opposite senses and
+     * falling towards each other on a slightly offset, roughly parabolic path.
+     */
+    public static Scenario collidingGalaxies(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        int first = count / 2;
+        float separation = 12 * diskScaleLength(Math.max(first, count - first));
+        // Each disc is built at rest first, so its mass is known before the approach speed
+        int firstStart = scenario.size();
+        float firstMass = scenario.addDisk(random, first, -separation / 2, -separation / 8, 0, 0, false,
+            GALAXY_CORE, GALAXY_EDGE);
+        int secondStart = scenario.size();
+        float secondMass = scenario.addDisk(random, count - first, separation / 2, separation / 8, 0, 0, true,
+            GALAXY_CORE, SECOND_GALAXY_EDGE);
+
+        // Parabolic relative speed, split so the pair's momentum is zero
+        float totalMass = firstMass + secondMass;
+        if (totalMass <= 0) return scenario;
+        float relativeSpeed = (float) Math.sqrt(2 * GravityManager.G * totalMass / separation);
+        scenario.shift(firstStart, secondStart, relativeSpeed * secondMass / totalMass, 0);
+        scenario.shift(secondStart, scenario.size(), -relativeSpeed * firstMass / totalMass, 0);
+        return scenario;
+    }
+
+    /**
+     * A Plummer sphere: positions and velocities are drawn from the Plummer
+     * model in three dimensions (Aarseth, Henon and Wielen 1974) and projected
+     * onto the plane. The projection and the softened gravity keep it from
+     * being exactly in equilibrium, but it holds together as a hot cluster.
+     */
+    public static Scenario plummerSphere(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        if (count <= 0) return scenario;
+
+        float[] radii = new float[count];
+        float totalMass = 0;
+        for (int i = 0; i < count; i++) {
+            radii[i] = 1f + random.nextFloat() * 2f;
+            totalMass += SimulationManager.calculateMass(radii[i]);
+        }
+        float scale = 6f * (float) Math.sqrt(count) + 50f;
+        float velocityScale = (float) Math.sqrt(GravityManager.G * totalMass / scale);
+
+        Vector2 direction = new Vector2();
+        Color color = new Color();
+        for (int i = 0; i < count; i++) {
+            // Radius from the inverted cumulative mass, leaving out the sparse far tail
+            float r;
+            do {
+                float m = Math.max(random.nextFloat(), 1e-6f);
+                r = (float) (1 / Math.sqrt(Math.pow(m, -2.0 / 3) - 1));
+            } while (r > 10f);
+            projectedDirection(random, direction);
+            float x = direction.x * r * scale, y = direction.y * r * scale;
+
+            // Speed as a fraction of the local escape speed, by rejection
+            float q, g;
+            do {
+                q = random.nextFloat();
+                g = 0.1f * random.nextFloat();
+            } while (g > q * q * (float) Math.pow(1 - q * q, 3.5));
+            float speed = q * (float) Math.sqrt(2) * (float) Math.pow(1 + r * r, -0.25) * velocityScale;
+            projectedDirection(random, direction);
+
+            float warmth = Math.min(1f, r / 3f);
+            color.set(1f, 0.85f + 0.15f * warmth, 0.6f + 0.4f * warmth, 1f);
+            scenario.add(x, y, direction.x * speed, direction.y * speed, radii[i], color);
+        }
+        return scenario;
+    }
+
+    /**
+     * A young star in a disc of planetesimals. Surface density falls off as
+     * one over the distance and sizes follow a steep power law, so most bodies
+     * are small grains and a few are planetary embryos. Orbits are Keplerian
+     * about the mass inside them with small eccentricities.
+     */
+    public static Scenario protoplanetaryDisk(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        if (count <= 0) return scenario;
+
+        int planetesimals = count - 1;
+        float[] radii = new float[planetesimals];
+        float diskMass = 0;
+        for (int i = 0; i < planetesimals; i++) {
+            float u = random.nextFloat();
+            radii[i] = 0.75f + 5f * u * u * u * u;
+            diskMass += SimulationManager.calculateMass(radii[i]);
+        }
+        // The star outweighs the disc, as in a real system
+        float starRadius = Math.max(50f, (float) Math.sqrt(4 * diskMass / Math.PI));
+        scenario.add(0, 0, 0, 0, starRadius, Color.ORANGE);
+
+        float innerRadius = starRadius * 3;
+        float outerRadius = innerRadius + 20f * (float) Math.sqrt(planetesimals) + 200f;
+        float[] distances = new float[planetesimals];
+        for (int i = 0; i < planetesimals; i++) {
+            // Density falling as 1/r puts equal mass in equal widths
+            distances[i] = innerRadius + random.nextFloat() * (outerRadius - innerRadius);
+        }
+        Arrays.sort(distances);
+
+        float enclosedMass = SimulationManager.calculateMass(starRadius);
+        Color color = new Color();
+        for (int i = 0; i < planetesimals; i++) {
+            float distance = distances[i];
+            float angle = random.nextFloat() * MathUtils.PI2;
+            float speed = (float) Math.sqrt(GravityManager.G * enclosedMass / distance)
+                * (1f + 0.03f * (float) random.nextGaussian());
+            float radial = speed * 0.02f * (float) random.nextGaussian();
+            float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+            // Ice beyond the middle of the disc, rock inside it
+            float ice = MathUtils.clamp((distance - innerRadius) / (outerRadius - innerRadius) * 2f - 0.5f, 0f, 1f);
+            float shade = 0.7f + random.nextFloat() * 0.3f;
+            color.set(shade * (0.75f - 0.15f * ice), shade * (0.55f + 0.2f * ice), shade * (0.4f + 0.5f * ice), 1f);
+            scenario.add(cos * distance, sin * distance,
+                -sin * speed + cos * radial, cos * speed + sin * radial, radii[i], color);
+            enclosedMass += SimulationManager.calculateMass(radii[i]);
+        }
+        return scenario;
+    }
+
+    /**
+     * A planet with two shepherd moons and bands of small ring particles
+     * separated by gaps. The planet grows with the particle count so the rings
+     * stay light next to it, as real rings are.
+     */
+    public static Scenario ringSystem(int count, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Scenario scenario = new Scenario();
+        if (count <= 0) return scenario;
+
+        float planetRadius = Math.max(60f, 2.5f * (float) Math.sqrt(count));
+        float planetMass = SimulationManager.calculateMass(planetRadius);
+        scenario.add(0, 0, 0, 0, planetRadius, Color.valueOf("e3c58fff"));
+
+        // Moons outside the rings, on circular orbits
+        float[] moonDistances = { 4.2f, 5.3f };
+        int moons = Math.min(moonDistances.length, count - 1);
+        for (int i = 0; i < moons; i++) {
+            float distance = moonDistances[i] * planetRadius;
+            float speed = (float) Math.sqrt(GravityManager.G * planetMass / distance);
+            float angle = random.nextFloat() * MathUtils.PI2;
+            float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+            scenario.add(cos * distance, sin * distance, -sin * speed, cos * speed,
+                planetRadius * 0.08f, Color.LIGHT_GRAY);
+        }
+
+        // Particles per band in proportion to its area
+        int particles = count - 1 - moons;
+        float totalArea = 0;
+        for (float[] band : RING_BANDS) {
+            totalArea += band[1] * band[1] - band[0] * band[0];
+        }
+        Color color = new Color();
+        int placed = 0;
+        for (int b = 0; b < RING_BANDS.length; b++) {
+            float inner = RING_BANDS[b][0] * planetRadius, outer = RING_BANDS[b][1] * planetRadius;
+            float share = (RING_BANDS[b][1] * RING_BANDS[b][1] - RING_BANDS[b][0] * RING_BANDS[b][0]) / totalArea;
+            int bandCount = b == RING_BANDS.length - 1 ? particles - placed : Math.round(particles * share);
+            float brightness = RING_BANDS[b][2];
+            for (int i = 0; i < bandCount; i++) {
+                float u = random.nextFloat();
+                float distance = (float) Math.sqrt(inner * inner + u * (outer * outer - inner * inner));
+                float angle = random.nextFloat() * MathUtils.PI2;
+                // The rings are light, so the planet alone sets their speed
+                float speed = (float) Math.sqrt(GravityManager.G * planetMass / distance);
+                float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+                float shade = brightness * (0.8f + random.nextFloat() * 0.2f);
+                color.set(shade, shade * 0.92f, shade * 0.8f, 1f);
+                scenario.add(cos * distance, sin * distance, -sin * speed, cos * speed,
+                    0.5f + random.nextFloat() * 0.5f, color);
+            }
+            placed += bandCount;
+        }
+        return scenario;
+    }
+
+    private static float diskScaleLength(int count) {
+        return 8f * (float) Math.sqrt(Math.max(count, 1)) + 40f;
+    }
+
+    /**
+     * Adds a core and {@code count - 1} stars in an exponential disc around
+     * ({@code x}, {@code y}), all moving with ({@code vx}, {@code vy}).
+     *
+     * @return Mass of the disc, core included
+     */
+    private float addDisk(RandomXS128 random, int count, float x, float y, float vx, float vy,
+            boolean clockwise, Color coreColor, Color edgeColor) {
+        if (count <= 0) return 0;
+        int stars = count - 1;
+        float[] radii = new float[stars];
+        float starMass = 0;
+        for (int i = 0; i < stars; i++) {
+            radii[i] = 1f + random.nextFloat() * 2f;
+            starMass += SimulationManager.calculateMass(radii[i]);
+        }
+        float coreRadius = Math.max(30f, (float) Math.sqrt(0.2f * starMass / Math.PI));
+        add(x, y, vx, vy, coreRadius, coreColor);
+
+        float scaleLength = diskScaleLength(stars);
+        float innerRadius = coreRadius * 3;
+        float[] distances = new float[stars];
+        for (int i = 0; i < stars; i++) {
+            // Gamma-distributed with shape 2, which makes the surface density fall as exp(-r / scaleLength)
+            double u = (1.0 - random.nextDouble()) * (1.0 - random.nextDouble());
+            distances[i] = innerRadius - scaleLength * (float) Math.log(u);
+        }
+        Arrays.sort(distances);
+
+        float enclosedMass = SimulationManager.calculateMass(coreRadius);
+        float sense = clockwise ? -1f : 1f;
+        Color color = new Color();
+        for (int i = 0; i < stars; i++) {
+            float distance = distances[i];
+            float angle = random.nextFloat() * MathUtils.PI2;
+            float speed = (float) Math.sqrt(GravityManager.G * enclosedMass / distance);
+            float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+            float dispersion = 0.05f * speed;
+            float starVx = -sin * speed * sense + dispersion * (float) random.nextGaussian();
+            float starVy = cos * speed * sense + dispersion * (float) random.nextGaussian();
+            float shade = 0.75f + random.nextFloat() * 0.25f;
+            color.set(coreColor).lerp(edgeColor, Math.min(1f, (distance - innerRadius) / (4 * scaleLength)));
+            color.mul(shade, shade, shade, 1f);
+            add(x + cos * distance, y + sin * distance, vx + starVx, vy + starVy, radii[i], color);
+            enclosedMass += SimulationManager.calculateMass(radii[i]);
+        }
+        return enclosedMass;
+    }
+
+    /**
+     * Adds a velocity to bodies {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    private void shift(int from, int to, float dvx, float dvy) {
+        for (int i = from; i < to; i++) {
+            BodyState body = bodies.get(i);
+            bodies.set(i, new BodyState(body.getPosition(), body.getVelocity().add(dvx, dvy), body.getRadius(),
+                body.getMass(), body.getColor(), body.getId()));
+        }
+    }
+
+    /**
+     * A uniformly random direction in space, projected onto the plane; its
+     * length is the cosine of the angle to the plane.
+     */
+    private static void projectedDirection(RandomXS128 random, Vector2 out) {
+        float z = 2f * random.nextFloat() - 1f;
+        float planar = (float) Math.sqrt(1 - z * z);
+        float angle = random.nextFloat() * MathUtils.PI2;
+        out.set(planar * MathUtils.cos(angle), planar * MathUtils.sin(angle));
+    }
+
+    /**
+     * Copies the bodies of a frame, e.g. to save the end of a run as a new scenario.
+     */
+    public static Scenario fromState(WorldState state) {
+        Scenario scenario = new Scenario();
+        for (int i = 0; i < state.size(); i++) {
+            scenario.bodies.add(state.toBodyState(i));
+        }
+        return scenario;
+    }
+
+    public static Scenario read(Reader reader) throws IOException {
+        Scenario scenario = new Scenario();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split(",");
+            if (fields.length != 6) {
+                throw new IllegalArgumentException("Line " + number + ": expected x,y,vx,vy,radius,color: " + line);
+            }
+            try {
+                scenario.add(
+                    Float.parseFloat(fields[0].trim()), Float.parseFloat(fields[1].trim()),
+                    Float.parseFloat(fields[2].trim()), Float.parseFloat(fields[3].trim()),
+                    Float.parseFloat(fields[4].trim()),
+                    Color.valueOf(fields[5].trim())
+                );
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return scenario;
+    }
+
+    /**
+     * Writes the bodies in the format {@link #read} accepts.
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("# x,y,vx,vy,radius,color\n");
+        for (BodyState body : bodies) {
+            Vector2 position = body.getPosition();
+            Vector2 velocity = body.getVelocity();
+            writer.write(position.x + "," + position.y + "," + velocity.x + "," + velocity.y + ","
+                + body.getRadius() + "," + body.getColor() + "\n");
+        }
+        writer.flush();
+    }
+}
@@ -1,11 +1,13 @@
 package io.github.gravitygame.screens;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -15,7 +17,9 @@ import io.github.gravitygame.Main;
 import io.github.gravitygame.entities.BodyCreationController;
 import io.github.gravitygame.entities.BodyDeletionController;
 import io.github.gravitygame.managers.CameraController;
+import io.github.gravitygame.managers.QualityGovernor;
 import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.SimulationThread;
 import io.github.gravitygame.managers.SoundManager;
 import io.github.gravitygame.managers.StarsManager;
 import io.github.gravitygame.managers.UICreationManager;
@@ -23,6 +27,9 @@ import io.github.gravitygame.managers.WorldStateManager;
 import io.github.gravitygame.physics.CollisionManager;
 import io.github.gravitygame.physics.PhysicsRenderer;
 import io.github.gravitygame.physics.TrajectoryRenderer;
+import io.github.gravitygame.utils.Log;
+import io.github.gravitygame.utils.PerformanceMonitor;
+import io.github.gravitygame.utils.WorldState;
 
 public class GameScreen implements Screen {
 
@@ -31,6 +38,7 @@ public class GameScreen implements Screen {
     private OrthographicCamera camera;
     private ShapeRenderer shapeRenderer;
     private SimulationManager simulationManager;
+    private SimulationThread simulationThread;
     private CameraController cameraController;
     private BodyCreationController bodyCreationController;
     private UICreationManager uiCreationManager;
@@ -44,18 +52,36 @@ public class GameScreen implements Screen {
     private WorldStateManager worldStateManager;
     private PhysicsRenderer physicsRenderer;
 
+    // Phase timings and frame counters; F9 logs a report
+    private final PerformanceMonitor profiler = PerformanceMonitor.getInstance();
+    private GLProfiler glProfiler;
+    private QualityGovernor qualityGovernor;
+
     public GameScreen(Main main) {
         this.main = main;
     }
 
     @Override
     public void show() {
+        if (simulationThread != null) {
+            // Shown again after hide(); everything is still set up
+            setupInput();
+            simulationThread.resume();
+            return;
+        }
         initializeCoreSystems();
-        initializeUI();
         initializeStars();
-        collisionManager = new CollisionManager(worldStateManager);
+        // Adjusts the renderers and stars, and is shown by the UI
+        qualityGovernor = new QualityGovernor(profiler, trajectoryRenderer, physicsRenderer, starsManager,
+            worldStateManager);
+        initializeUI();
+        glProfiler = new GLProfiler(Gdx.graphics);
+        glProfiler.enable();
+        collisionManager = new CollisionManager(worldStateManager,
+            (size, intensity) -> SoundManager.getInstance().playCollisionSound(size));
         setupInput();
         SoundManager.getInstance().startGameMusic();
+        simulationThread.start();
     }
 
     private void initializeCoreSystems() {
@@ -71,13 +97,17 @@ public class GameScreen implements Screen {
         // Connect them
         simulationManager.setWorldStateManager(worldStateManager);
         worldStateManager.setSimulationManager(simulationManager);
+        
+        // Physics and capture run at their own fixed rate; this thread only draws
+        simulationThread = new SimulationThread(simulationManager, worldStateManager);
 
-        trajectoryRenderer = new TrajectoryRenderer(worldStateManager);
+        trajectoryRenderer = new TrajectoryRenderer(worldStateManager, camera);
         trajectoryRenderer.setEnabled(true);
 
         // Initialize body creation system
         bodyCreationController = new BodyCreationController(
             simulationManager,
+            worldStateManager,
             simulationManager.getWorld(),
             camera,
             4.0f
@@ -91,7 +121,7 @@ public class GameScreen implements Screen {
         physicsRenderer = new PhysicsRenderer(worldStateManager); // Pass world state queue
         
         // Initialize camera controller
-        cameraController = new CameraController(camera, simulationManager, stage);
+        cameraController = new CameraController(camera, worldStateManager, stage);
     }
 
 
@@ -104,7 +134,10 @@ public class GameScreen implements Screen {
             uiStage,
             simulationManager,
             bodyCreationController,
-            cameraController
+            cameraController,
+            trajectoryRenderer,
+            worldStateManager,
+            qualityGovernor
         );
         
         // Setup UI components
@@ -129,17 +162,41 @@ public class GameScreen implements Screen {
     public void render(float delta) {
         update(delta);
         renderWorld();
-        starsManager.render(shapeRenderer, camera);
+        long start = profiler.begin();
+        starsManager.render(camera);
+        profiler.end(PerformanceMonitor.Phase.STARS, start);
+        start = profiler.begin();
         uiCreationManager.render(Gdx.graphics.getDeltaTime());
+        profiler.end(PerformanceMonitor.Phase.UI, start);
+
+        profiler.count(PerformanceMonitor.Counter.DRAW_CALLS, glProfiler.getDrawCalls());
+        glProfiler.reset();
+        WorldState displayed = worldStateManager.getOldestState();
+        profiler.count(PerformanceMonitor.Counter.BODIES, displayed != null ? displayed.size() : 0);
+        profiler.count(PerformanceMonitor.Counter.DRAWN_BODIES, physicsRenderer.getDrawnBodyCount());
+        profiler.count(PerformanceMonitor.Counter.STATES, worldStateManager.getHistorySize());
+        profiler.update();
+        qualityGovernor.update(delta);
     }
 
     private void update(float delta) {
-        // Update camera and simulation
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) {
+            Log.info("Performance", "\n" + profiler.report());
+        }
+
+        // Pull in frames published by the simulation thread, then update the camera
+        long start = profiler.begin();
+        worldStateManager.drainFrames();
+        profiler.end(PerformanceMonitor.Phase.DRAIN, start);
+        start = profiler.begin();
         cameraController.update(delta);
-        simulationManager.update(delta);
-        worldStateManager.update(delta);
+        profiler.end(PerformanceMonitor.Phase.CAMERA, start);
+        start = profiler.begin();
         physicsRenderer.update(delta);
+        profiler.end(PerformanceMonitor.Phase.CYCLE, start);
+        start = profiler.begin();
         collisionManager.update();
+        profiler.end(PerformanceMonitor.Phase.COLLISIONS, start);
         camera.update();
     
         // Update body creation input
@@ -154,14 +211,18 @@ public class GameScreen implements Screen {
         shapeRenderer.setProjectionMatrix(camera.combined);
         
         // Render historical physics state from WorldStateQueue
-        physicsRenderer.renderBodies(shapeRenderer, simulationManager.getBodies());
+        long start = profiler.begin();
+        physicsRenderer.renderBodies(shapeRenderer);
+        profiler.end(PerformanceMonitor.Phase.BODIES, start);
 
         // Render body preview
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
         bodyCreationController.renderPreview(shapeRenderer);
         shapeRenderer.end();
 
-        trajectoryRenderer.renderTrajectories(shapeRenderer, simulationManager.getBodies());
+        start = profiler.begin();
+        trajectoryRenderer.renderTrajectories(shapeRenderer);
+        profiler.end(PerformanceMonitor.Phase.TRAJECTORIES, start);
     }
 
     @Override
@@ -172,15 +233,28 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
+        simulationThread.stop();
+        glProfiler.disable();
         shapeRenderer.dispose();
+        physicsRenderer.dispose();
+        trajectoryRenderer.dispose();
+        starsManager.dispose();
         simulationManager.dispose();
         uiCreationManager.dispose();
         uiStage.dispose();
         stage.dispose();
     }
 
-    // Required empty implementations
-    @Override public void pause() {}
-    @Override public void resume() {}
-    @Override public void hide() {}
+    // Nothing drains the captured frames while the screen is not rendered
+    @Override public void pause() {
+        simulationThread.pause();
+    }
+
+    @Override public void resume() {
+        simulationThread.resume();
+    }
+
+    @Override public void hide() {
+        simulationThread.pause();
+    }
 }
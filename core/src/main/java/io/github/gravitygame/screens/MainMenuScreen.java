@@ -23,6 +23,7 @@ import io.github.gravitygame.Main;
 import io.github.gravitygame.entities.Planet;
 import io.github.gravitygame.entities.Star;
 import io.github.gravitygame.managers.SoundManager;
+import io.github.gravitygame.utils.StarFieldMesh;
 
 public class MainMenuScreen implements Screen {
     private static final int STAR_COUNT = 150;
@@ -33,7 +34,7 @@ public class MainMenuScreen implements Screen {
     private Stage stage;
     private Skin skin;
     private ShapeRenderer shapeRenderer;
-    private List<Star> stars;
+    private StarFieldMesh starField;
     private List<Planet> planets;
     private OrthographicCamera backgroundCamera;
 
@@ -62,19 +63,21 @@ public class MainMenuScreen implements Screen {
     }
 
     private void initializeBackground() {
-        stars = createStars();
+        starField = createStars();
         planets = createPlanets();
     }
 
-    private List<Star> createStars() {
-        List<Star> stars = new ArrayList<>(STAR_COUNT);
+    private StarFieldMesh createStars() {
+        StarFieldMesh field = new StarFieldMesh(STAR_COUNT);
         for (int i = 0; i < STAR_COUNT; i++) {
             float x = MathUtils.random(0, Gdx.graphics.getWidth());
             float y = MathUtils.random(0, Gdx.graphics.getHeight());
             float distance = MathUtils.random(50, 200);
-            stars.add(new Star(x, y, distance));
+            Star star = new Star(x, y, distance);
+            field.add(star.position.x, star.position.y, star.size, star.color);
         }
-        return stars;
+        field.upload();
+        return field;
     }
 
     private List<Planet> createPlanets() {
@@ -148,9 +151,7 @@ public class MainMenuScreen implements Screen {
     }
 
     private void renderStars() {
-        shapeRenderer.begin(ShapeType.Filled);
-        stars.forEach(star -> star.render(shapeRenderer, 0, 0));
-        shapeRenderer.end();
+        starField.render(backgroundCamera.combined, Gdx.graphics.getWidth());
     }
 
     private void renderPlanets() {
@@ -225,5 +226,6 @@ public class MainMenuScreen implements Screen {
         stage.dispose();
         skin.dispose();
         shapeRenderer.dispose();
+        starField.dispose();
     }
 }
\ No newline at end of file
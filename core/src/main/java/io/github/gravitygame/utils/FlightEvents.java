@@ -0,0 +1,51 @@
+package io.github.gravitygame.utils;
+
+/**
+ * Custom Java Flight Recorder events for simulation steps, snapshot capture,
+ * display cycling, re-simulation, edits and collision scans, so hitches can
+ * be lined up with GC and JIT activity in a recording.
+ * This Java 8 build has no JFR API, so every call is a no-op. On Java 17+ the
+ * multi-release jar replaces this class with the version under
+ * {@code src/main/java17}, which emits the events while a recording runs.
+ *
+ * <p>Timed events are started with a {@code begin} call, whose result (null
+ * when nothing is recorded) is handed to the matching {@code end} call.
+ */
+public final class FlightEvents {
+    private FlightEvents() {} // Static utility
+
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    public static Object beginStep() { return null; }
+
+    /**
+     * @param pairs Body pairs summed directly, or 0 when the step used Barnes-Hut
+     */
+    public static void endStep(Object event, String backend, int bodies, long pairs, boolean barnesHut) {}
+
+    public static Object beginCapture() { return null; }
+
+    public static void endCapture(Object event, int bodies) {}
+
+    public static Object beginCycle() { return null; }
+
+    public static void endCycle(Object event, int historySize, boolean cycled) {}
+
+    public static Object beginFastForward() { return null; }
+
+    public static void endFastForward(Object event, int steps) {}
+
+    public static Object beginEdit() { return null; }
+
+    /**
+     * @param kind "add" or "remove"
+     * @param resimulated Whether the edit started a re-simulation of the history window
+     */
+    public static void endEdit(Object event, String kind, int bodies, boolean resimulated) {}
+
+    public static Object beginCollisions() { return null; }
+
+    public static void endCollisions(Object event, int bodies, long pairs, int hits) {}
+}
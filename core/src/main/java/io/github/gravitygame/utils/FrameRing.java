@@ -0,0 +1,112 @@
+package io.github.gravitygame.utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+import io.github.gravitygame.physics.BodyStore;
+
+/**
+ * Single-producer/single-consumer ring that hands captured frames from the
+ * simulation thread to the render thread without locks. Each slot is a
+ * one-frame {@link StateBuffer} that only the producer writes until the slot
+ * is published and only the consumer reads until it is released, so the
+ * volatile head and tail are the only shared state. A producer that finds the
+ * ring full parks until the consumer releases a slot.
+ */
+public final class FrameRing {
+    // Flags carried by a frame
+    public static final int TIMELINE_START = 1; // First frame of a re-simulated timeline
+    public static final int TIMELINE_END = 2;   // Last frame; the timeline is complete
+
+    private final StateBuffer[] frames;
+    private final int[] flags;
+    private final int capacity;
+
+    // Next frame to read, written only by the consumer
+    private volatile long head = 0;
+    // Next frame to write, written only by the producer
+    private volatile long tail = 0;
+    // Producer parked on a full ring, for the consumer to wake
+    private volatile Thread waitingProducer;
+
+    public FrameRing(int capacity, int initialBodyCapacity) {
+        this.capacity = capacity;
+        this.frames = new StateBuffer[capacity];
+        this.flags = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = new StateBuffer(1, initialBodyCapacity);
+        }
+    }
+
+    /**
+     * Copies the store into the next slot and publishes it. Waits for the
+     * consumer while the ring is full, which throttles the producer to the
+     * consumer's pace; a single thread playing both roles must drain before
+     * more than {@code capacity} frames are pending. The frame is dropped if
+     * the producer is interrupted while waiting.
+     */
+    public void publish(BodyStore store, double time, int generation, int frameFlags) {
+        long position = tail;
+        if (position - head >= capacity) {
+            // Registered before the re-check, so a release in between leaves an unpark permit
+            waitingProducer = Thread.currentThread();
+            try {
+                while (position - head >= capacity) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                    LockSupport.park(this);
+                }
+            } finally {
+                waitingProducer = null;
+            }
+        }
+        int slot = (int) (position % capacity);
+        StateBuffer frame = frames[slot];
+        frame.clear();
+        frame.capture(store, time, generation);
+        flags[slot] = frameFlags;
+        tail = position + 1;
+    }
+
+    /**
+     * Returns the oldest unread frame, or null if none is pending. The view
+     * stays valid until {@link #release()}.
+     */
+    public WorldState peek() {
+        long position = head;
+        if (position == tail) return null;
+        return frames[(int) (position % capacity)].oldest();
+    }
+
+    /**
+     * Flags of the frame returned by {@link #peek()}.
+     */
+    public int peekFlags() {
+        return flags[(int) (head % capacity)];
+    }
+
+    /**
+     * Hands the peeked frame's slot back to the producer.
+     */
+    public void release() {
+        head = head + 1;
+        Thread producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    public int pending() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Approximate heap held by the slots, in bytes. A slot the producer is
+     * growing may be counted at its old size.
+     */
+    public long byteSize() {
+        long bytes = 0;
+        for (StateBuffer frame : frames) {
+            bytes += frame.byteSize();
+        }
+        return bytes;
+    }
+}
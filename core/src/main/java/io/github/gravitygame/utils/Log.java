@@ -0,0 +1,29 @@
+package io.github.gravitygame.utils;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Logging for code that also runs without a libGDX application, such as the
+ * simulation under the headless runner. Messages go to {@code Gdx.app} when
+ * there is one and to the standard streams otherwise.
+ */
+public final class Log {
+    private Log() {} // Static utility
+
+    public static void info(String tag, String message) {
+        if (Gdx.app != null) {
+            Gdx.app.log(tag, message);
+        } else {
+            System.out.println("[" + tag + "] " + message);
+        }
+    }
+
+    public static void error(String tag, String message, Throwable exception) {
+        if (Gdx.app != null) {
+            Gdx.app.error(tag, message, exception);
+        } else {
+            System.err.println("[" + tag + "] " + message);
+            exception.printStackTrace(System.err);
+        }
+    }
+}
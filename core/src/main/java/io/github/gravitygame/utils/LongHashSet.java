@@ -0,0 +1,81 @@
+package io.github.gravitygame.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive longs, so per-frame bookkeeping does not box
+ * keys or allocate entries. Zero is reserved as the empty-slot marker and
+ * cannot be stored.
+ */
+public final class LongHashSet {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int mask;
+    private int size = 0;
+
+    public LongHashSet() {
+        this(64);
+    }
+
+    public LongHashSet(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (initialCapacity / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return true if the key was not already present
+     */
+    public boolean add(long key) {
+        if (key == 0) throw new IllegalArgumentException("0 is reserved");
+        int slot = find(key);
+        if (keys[slot] == key) return false;
+        keys[slot] = key;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        return key != 0 && keys[find(key)] == key;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it would go.
+     */
+    private int find(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : old) {
+            if (key != 0) {
+                keys[find(key)] = key;
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
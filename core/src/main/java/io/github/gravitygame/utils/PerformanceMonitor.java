@@ -1,28 +1,103 @@
 package io.github.gravitygame.utils;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 import com.badlogic.gdx.utils.TimeUtils;
 
+/**
+ * Frame rate plus a phase profiler. Each stage of a frame or simulation
+ * update is timed as a named {@link Phase} into a log-bucketed histogram, and
+ * the render thread counts per-frame work in {@link Counter}s. Recording
+ * allocates nothing, so it can stay on while the game runs; {@link #report()}
+ * builds a summary on demand.
+ *
+ * <p>A phase must only be recorded from one thread; phases are split between
+ * the render and simulation threads below. Reading a report while the other
+ * thread records gives approximate figures, which is fine for profiling.
+ */
 public class PerformanceMonitor {
     private static final int SAMPLE_SIZE = 30; // Number of frames to average
+
+    /**
+     * Timed stages, each recorded on one thread.
+     */
+    public enum Phase {
+        // Render thread
+        FRAME,          // Time between two update() calls
+        DRAIN,          // Moving published frames into the history
+        CAMERA,         // Camera following and input
+        CYCLE,          // Advancing the displayed frame
+        COLLISIONS,     // Collision scan of the displayed frame
+        BODIES,         // Culling, clustering and drawing bodies
+        TRAJECTORIES,   // Trail and prediction drawing
+        STARS,          // Star background
+        UI,             // Stage act and draw
+        // Simulation thread
+        SIMULATION,     // A whole SimulationManager.update
+        EDITS,          // Applying queued edits
+        REBUILD,        // Re-simulating the history window after an edit
+        GRAVITY,        // Force evaluation
+        BOX2D_STEP,     // Box2D world step with the push and pull around it
+        NATIVE_STEP,    // Native integrator step, forces included
+        CAPTURE         // Publishing a snapshot
+    }
+
+    /**
+     * Work done in one frame, counted on the render thread.
+     */
+    public enum Counter {
+        BODIES,         // Bodies in the displayed frame
+        DRAWN_BODIES,   // Bodies and cluster impostors drawn
+        PAIRS,          // Body pairs tested for collision
+        STATES,         // Frames held in the history
+        DRAW_CALLS      // GL draw calls
+    }
+
+    private static final PerformanceMonitor instance = new PerformanceMonitor();
+
     private final float[] frameTimes = new float[SAMPLE_SIZE];
     private int currentSample = 0;
     private long lastFrameTime;
     private float averageFrameTime;
     private float fps;
 
+    private final Histogram[] histograms = new Histogram[Phase.values().length];
+    // Counts of the frame in progress and of the last complete frame
+    private final long[] counters = new long[Counter.values().length];
+    private final long[] lastCounters = new long[Counter.values().length];
+    private volatile boolean enabled = true;
+
     public PerformanceMonitor() {
         // Initialize the frame times array with zeros
         for (int i = 0; i < SAMPLE_SIZE; i++) {
             frameTimes[i] = 0;
         }
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
         lastFrameTime = TimeUtils.nanoTime();
     }
 
+    /**
+     * The monitor shared by the game's threads.
+     */
+    public static PerformanceMonitor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Ends a frame. Call once per frame on the render thread.
+     */
     public void update() {
         // Calculate frame time in milliseconds
         long currentTime = TimeUtils.nanoTime();
-        float frameTime = (currentTime - lastFrameTime) / 1_000_000f; // Convert nanoseconds to milliseconds
+        long frameNanos = currentTime - lastFrameTime;
+        float frameTime = frameNanos / 1_000_000f; // Convert nanoseconds to milliseconds
         lastFrameTime = currentTime;
+        if (enabled) {
+            histograms[Phase.FRAME.ordinal()].record(frameNanos);
+        }
 
         // Update our sample array
         frameTimes[currentSample] = frameTime;
@@ -34,9 +109,12 @@ public class PerformanceMonitor {
             totalTime += time;
         }
         averageFrameTime = totalTime / SAMPLE_SIZE;
-        
+
         // Calculate FPS (1000ms / frameTime)
         fps = 1000f / (averageFrameTime > 0 ? averageFrameTime : 16.67f); // Default to 60 FPS if no valid average
+
+        System.arraycopy(counters, 0, lastCounters, 0, counters.length);
+        Arrays.fill(counters, 0);
     }
 
     public float getFPS() {
@@ -46,4 +124,148 @@ public class PerformanceMonitor {
     public float getAverageFrameTime() {
         return averageFrameTime;
     }
-}
\ No newline at end of file
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a scope; pass the result to {@link #end}.
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@code start} under {@code phase}.
+     */
+    public void end(Phase phase, long start) {
+        if (start != 0 && enabled) {
+            histograms[phase.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    public void count(Counter counter, long amount) {
+        counters[counter.ordinal()] += amount;
+    }
+
+    /**
+     * A counter's value in the last complete frame.
+     */
+    public long getCounter(Counter counter) {
+        return lastCounters[counter.ordinal()];
+    }
+
+    public Histogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Forgets every recorded time.
+     */
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Summarises every phase recorded so far, in milliseconds, and the last
+     * frame's counters. Allocates; meant for dumping on request.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-13s %8s %9s %9s %9s %9s %9s%n",
+            "phase", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (Phase phase : Phase.values()) {
+            Histogram histogram = histograms[phase.ordinal()];
+            if (histogram.getCount() == 0) continue;
+            report.append(String.format(Locale.ROOT, "%-13s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                phase.name().toLowerCase(Locale.ROOT), histogram.getCount(),
+                histogram.getMean() / 1e6, histogram.getPercentile(0.5) / 1e6, histogram.getPercentile(0.99) / 1e6,
+                histogram.getPercentile(0.999) / 1e6, histogram.getMax() / 1e6));
+        }
+        for (Counter counter : Counter.values()) {
+            report.append(counter.name().toLowerCase(Locale.ROOT)).append('=')
+                .append(lastCounters[counter.ordinal()]).append(' ');
+        }
+        return report.toString().trim();
+    }
+
+    /**
+     * Histogram of durations in nanoseconds. Below {@code SUB_BUCKETS} every
+     * value has its own bucket; above, each power of two is split into
+     * {@code SUB_BUCKETS} buckets, so a percentile is within about 6% of the
+     * true value. Values past about 18 minutes share the last bucket.
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 40;
+        private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+        private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count = 0;
+        private long sum = 0;
+        private long max = 0;
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            counts[bucketOf(Math.min(value, MAX_VALUE))]++;
+            count++;
+            sum += value;
+            if (value > max) max = value;
+        }
+
+        public void reset() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            sum = 0;
+            max = 0;
+        }
+
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+        /** Total of the recorded values; differences between reads give time spent in between. */
+        public long getSum() { return sum; }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * The value below which {@code fraction} of the recorded values lie,
+         * rounded up to the end of its bucket.
+         */
+        public long getPercentile(double fraction) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return Math.min(lowestValue(bucket + 1) - 1, max);
+                }
+            }
+            return max;
+        }
+
+        private static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            int mantissa = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return (shift + 1) * SUB_BUCKETS + mantissa;
+        }
+
+        private static long lowestValue(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int shift = bucket / SUB_BUCKETS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        }
+    }
+}
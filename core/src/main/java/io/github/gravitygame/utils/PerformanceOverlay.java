@@ -0,0 +1,324 @@
+package io.github.gravitygame.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.gravitygame.managers.WorldStateManager;
+
+/**
+ * Rolling graphs of what {@link PerformanceMonitor} measures: frame time
+ * stacked by render phase, simulation steps per second, history memory, GC
+ * time and body count. Every graph has a fixed number of columns, the text
+ * is rebuilt a few times per second into reused builders, and sampling reads
+ * running totals, so showing the overlay costs a bounded number of quads and
+ * allocates nothing per frame.
+ */
+public class PerformanceOverlay extends Actor implements Disposable {
+    // Columns per graph, one per frame
+    private static final int SAMPLES = 120;
+    private static final float COLUMN_WIDTH = 3f;
+    private static final float GRAPH_HEIGHT = 40f;
+    private static final float PADDING = 6f;
+    // Frame time at the top of the frame graph, two frames at 60 Hz
+    private static final float FRAME_SCALE_MS = 1000f / 30f;
+    private static final float TEXT_INTERVAL = 0.25f;
+
+    private static final PerformanceMonitor.Phase[] FRAME_PHASES = {
+        PerformanceMonitor.Phase.DRAIN,
+        PerformanceMonitor.Phase.CAMERA,
+        PerformanceMonitor.Phase.CYCLE,
+        PerformanceMonitor.Phase.COLLISIONS,
+        PerformanceMonitor.Phase.BODIES,
+        PerformanceMonitor.Phase.TRAJECTORIES,
+        PerformanceMonitor.Phase.STARS,
+        PerformanceMonitor.Phase.UI
+    };
+    private static final String[] PHASE_LABELS = { "drain", "cam", "cycle", "coll", "body", "traj", "star", "ui" };
+    private static final Color[] PHASE_COLORS = {
+        new Color(0.55f, 0.55f, 0.55f, 1f),
+        new Color(0.35f, 0.6f, 1f, 1f),
+        new Color(0.3f, 0.85f, 0.85f, 1f),
+        new Color(1f, 0.45f, 0.35f, 1f),
+        new Color(0.45f, 0.9f, 0.4f, 1f),
+        new Color(0.95f, 0.8f, 0.3f, 1f),
+        new Color(0.75f, 0.5f, 1f, 1f),
+        new Color(1f, 0.55f, 0.85f, 1f)
+    };
+    private static final Color BACKGROUND = new Color(0, 0, 0, 0.6f);
+    private static final Color FRAME_COLOR = new Color(1f, 1f, 1f, 0.15f);
+    private static final Color BUDGET_COLOR = new Color(1f, 1f, 1f, 0.4f);
+    private static final Color GRAPH_COLOR = new Color(0.4f, 0.8f, 1f, 0.8f);
+
+    // Graphs below the frame graph
+    private static final int STEPS = 0;
+    private static final int MEMORY = 1;
+    private static final int GC = 2;
+    private static final int BODY_COUNT = 3;
+    private static final int GRAPHS = 4;
+
+    private final PerformanceMonitor monitor;
+    private final WorldStateManager worldStateManager;
+    private final BitmapFont font;
+    private final Texture pixelTexture;
+    private final TextureRegion pixel;
+    private final GarbageCollectorMXBean[] collectors;
+    private final float lineHeight;
+
+    // Rings of samples; the oldest is at head once SAMPLES have been taken
+    private final float[][] phaseSamples = new float[FRAME_PHASES.length][SAMPLES];
+    private final float[] frameSamples = new float[SAMPLES];
+    private final float[][] graphSamples = new float[GRAPHS][SAMPLES];
+    private int head = 0;
+    private int filled = 0;
+
+    // Running totals at the previous sample
+    private final long[] lastPhaseSums = new long[FRAME_PHASES.length];
+    private long lastFrameSum;
+    private long lastSteps;
+    private long lastGcMillis;
+    private long lastSampleNanos;
+    private boolean primed = false;
+
+    private final StringBuilder frameText = new StringBuilder();
+    private final StringBuilder[] graphText = new StringBuilder[GRAPHS];
+    private float textTimer = TEXT_INTERVAL;
+
+    public PerformanceOverlay(PerformanceMonitor monitor, WorldStateManager worldStateManager, BitmapFont font) {
+        this.monitor = monitor;
+        this.worldStateManager = worldStateManager;
+        this.font = font;
+        this.lineHeight = font.getLineHeight();
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        pixelTexture = new Texture(pixmap);
+        pixmap.dispose();
+        pixel = new TextureRegion(pixelTexture);
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+        for (int i = 0; i < GRAPHS; i++) {
+            graphText[i] = new StringBuilder();
+        }
+        setSize(SAMPLES * COLUMN_WIDTH + 2 * PADDING,
+            (GRAPH_HEIGHT + lineHeight) * (GRAPHS + 1) + lineHeight + 2 * PADDING);
+        setVisible(false);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        // Totals moved on while hidden; take fresh baselines
+        primed = false;
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        if (!isVisible()) return;
+        sample();
+        textTimer += delta;
+        if (textTimer >= TEXT_INTERVAL) {
+            textTimer = 0;
+            updateText();
+        }
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        long frameSum = monitor.getHistogram(PerformanceMonitor.Phase.FRAME).getSum();
+        long steps = monitor.getHistogram(PerformanceMonitor.Phase.BOX2D_STEP).getCount()
+            + monitor.getHistogram(PerformanceMonitor.Phase.NATIVE_STEP).getCount();
+        long gcMillis = gcMillis();
+        if (!primed) {
+            for (int p = 0; p < FRAME_PHASES.length; p++) {
+                lastPhaseSums[p] = monitor.getHistogram(FRAME_PHASES[p]).getSum();
+            }
+            lastFrameSum = frameSum;
+            lastSteps = steps;
+            lastGcMillis = gcMillis;
+            lastSampleNanos = now;
+            primed = true;
+            return;
+        }
+
+        for (int p = 0; p < FRAME_PHASES.length; p++) {
+            long sum = monitor.getHistogram(FRAME_PHASES[p]).getSum();
+            // A reset of the monitor makes a total go backwards; count that frame as zero
+            phaseSamples[p][head] = Math.max(0, sum - lastPhaseSums[p]) / 1e6f;
+            lastPhaseSums[p] = sum;
+        }
+        frameSamples[head] = Math.max(0, frameSum - lastFrameSum) / 1e6f;
+        lastFrameSum = frameSum;
+
+        float seconds = Math.max(now - lastSampleNanos, 1) / 1e9f;
+        graphSamples[STEPS][head] = Math.max(0, steps - lastSteps) / seconds;
+        graphSamples[MEMORY][head] = worldStateManager.getHistoryBytes() / (1024f * 1024f);
+        graphSamples[GC][head] = Math.max(0, gcMillis - lastGcMillis);
+        graphSamples[BODY_COUNT][head] = monitor.getCounter(PerformanceMonitor.Counter.BODIES);
+        lastSteps = steps;
+        lastGcMillis = gcMillis;
+        lastSampleNanos = now;
+
+        head = (head + 1) % SAMPLES;
+        filled = Math.min(filled + 1, SAMPLES);
+    }
+
+    private long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            // -1 when a collector does not report its time
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private void updateText() {
+        float windowMillis = 0;
+        for (int i = 0; i < filled; i++) {
+            windowMillis += frameSamples[i];
+        }
+        float windowSeconds = Math.max(windowMillis / 1000f, 1e-3f);
+
+        PerformanceMonitor.Histogram frames = monitor.getHistogram(PerformanceMonitor.Phase.FRAME);
+        frameText.setLength(0);
+        frameText.append("frame ");
+        appendFixed(frameText, filled > 0 ? windowMillis / filled : 0, 1);
+        frameText.append(" ms  p99 ");
+        appendFixed(frameText, frames.getPercentile(0.99) / 1e6f, 1);
+        frameText.append(" ms");
+
+        setGraphText(STEPS, "steps/s ", mean(graphSamples[STEPS]), 0, "");
+        setGraphText(MEMORY, "history ", latest(graphSamples[MEMORY]), 1, " MB");
+        setGraphText(GC, "gc ", total(graphSamples[GC]) / windowSeconds, 1, " ms/s");
+        setGraphText(BODY_COUNT, "bodies ", latest(graphSamples[BODY_COUNT]), 0, "");
+    }
+
+    private void setGraphText(int graph, String label, float value, int decimals, String unit) {
+        StringBuilder text = graphText[graph];
+        text.setLength(0);
+        text.append(label);
+        appendFixed(text, value, decimals);
+        text.append(unit);
+    }
+
+    /**
+     * Appends a number with a fixed number of decimals without the
+     * allocation of formatting a float.
+     */
+    private static void appendFixed(StringBuilder text, float value, int decimals) {
+        int scale = decimals == 0 ? 1 : decimals == 1 ? 10 : 100;
+        long scaled = Math.round(Math.max(0, value) * scale);
+        text.append(scaled / scale);
+        if (decimals > 0) {
+            text.append('.');
+            long fraction = scaled % scale;
+            if (decimals == 2 && fraction < 10) text.append('0');
+            text.append(fraction);
+        }
+    }
+
+    private float mean(float[] samples) {
+        return filled == 0 ? 0 : total(samples) / filled;
+    }
+
+    private float total(float[] samples) {
+        float total = 0;
+        for (int i = 0; i < filled; i++) {
+            total += samples[i];
+        }
+        return total;
+    }
+
+    private float latest(float[] samples) {
+        return filled == 0 ? 0 : samples[(head + SAMPLES - 1) % SAMPLES];
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        float previousColor = batch.getPackedColor();
+        float x = getX(), y = getY();
+
+        batch.setColor(BACKGROUND);
+        batch.draw(pixel, x, y, getWidth(), getHeight());
+
+        float left = x + PADDING;
+        float top = y + getHeight() - PADDING;
+
+        // Frame time stacked by phase, under the whole frame interval
+        font.setColor(Color.WHITE);
+        font.draw(batch, frameText, left, top);
+        float graphBottom = top - lineHeight - GRAPH_HEIGHT;
+        float pixelsPerMs = GRAPH_HEIGHT / FRAME_SCALE_MS;
+        for (int column = 0; column < filled; column++) {
+            int sample = (head + SAMPLES - filled + column) % SAMPLES;
+            float columnX = left + (SAMPLES - filled + column) * COLUMN_WIDTH;
+            batch.setColor(FRAME_COLOR);
+            batch.draw(pixel, columnX, graphBottom, COLUMN_WIDTH, Math.min(GRAPH_HEIGHT, frameSamples[sample] * pixelsPerMs));
+            float stack = 0;
+            for (int p = 0; p < FRAME_PHASES.length && stack < GRAPH_HEIGHT; p++) {
+                float height = Math.min(GRAPH_HEIGHT - stack, phaseSamples[p][sample] * pixelsPerMs);
+                if (height <= 0) continue;
+                batch.setColor(PHASE_COLORS[p]);
+                batch.draw(pixel, columnX, graphBottom + stack, COLUMN_WIDTH, height);
+                stack += height;
+            }
+        }
+        // 60 Hz budget line
+        batch.setColor(BUDGET_COLOR);
+        batch.draw(pixel, left, graphBottom + GRAPH_HEIGHT / 2, SAMPLES * COLUMN_WIDTH, 1);
+
+        // Phase legend
+        float legendY = graphBottom - 2;
+        float legendX = left;
+        for (int p = 0; p < FRAME_PHASES.length; p++) {
+            font.setColor(PHASE_COLORS[p]);
+            font.draw(batch, PHASE_LABELS[p], legendX, legendY);
+            legendX += SAMPLES * COLUMN_WIDTH / FRAME_PHASES.length;
+        }
+
+        float graphTop = legendY - lineHeight;
+        for (int graph = 0; graph < GRAPHS; graph++) {
+            font.setColor(Color.WHITE);
+            font.draw(batch, graphText[graph], left, graphTop);
+            drawGraph(batch, graphSamples[graph], left, graphTop - lineHeight - GRAPH_HEIGHT);
+            graphTop -= lineHeight + GRAPH_HEIGHT;
+        }
+
+        font.setColor(Color.WHITE);
+        batch.setPackedColor(previousColor);
+    }
+
+    /**
+     * Draws a ring of samples as columns scaled to the largest one.
+     */
+    private void drawGraph(Batch batch, float[] samples, float left, float bottom) {
+        float max = 0;
+        for (int i = 0; i < filled; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        if (max <= 0) return;
+        float scale = GRAPH_HEIGHT / max;
+        batch.setColor(GRAPH_COLOR);
+        for (int column = 0; column < filled; column++) {
+            int sample = (head + SAMPLES - filled + column) % SAMPLES;
+            float height = samples[sample] * scale;
+            if (height <= 0) continue;
+            batch.draw(pixel, left + (SAMPLES - filled + column) * COLUMN_WIDTH, bottom, COLUMN_WIDTH, height);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pixelTexture.dispose();
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.gravitygame.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * A star field baked into a static vertex buffer: stars are added once, uploaded,
+ * and then drawn every frame with a single call in which only the projection
+ * changes. Each star is a quad whose fragment shader cuts out an antialiased
+ * disc, matching the filled circles the field used to be drawn with.
+ */
+public final class StarFieldMesh implements Disposable {
+    // Indices are shorts, so one mesh holds at most this many stars
+    public static final int MAX_STARS = 65536 / 4 - 1;
+    // position(2) + local(2) + radius(1) + packed colour(1)
+    private static final int VERTEX_SIZE = 6;
+    // Vertex data of one star, for callers that build it with writeStar
+    public static final int FLOATS_PER_STAR = 4 * VERTEX_SIZE;
+
+    private static final float[] CORNER_X = { -1, 1, 1, -1 };
+    private static final float[] CORNER_Y = { -1, -1, 1, 1 };
+
+    private final ShaderProgram shader;
+    private final boolean ownsShader;
+    private final Mesh mesh;
+    // Uniform locations, looked up on first draw; -1 if optimised away, which makes setting them a no-op
+    private boolean uniformsFetched = false;
+    private int projTransLocation;
+    private int pixelSizeLocation;
+    private final int capacity;
+    // Staging for add(), allocated on first use
+    private float[] vertices;
+    private int count = 0;
+    private int uploaded = 0;
+
+    /**
+     * Creates a mesh with its own shader.
+     */
+    public StarFieldMesh(int capacity) {
+        this(capacity, createShader(), true);
+    }
+
+    /**
+     * Creates a mesh drawn with a shader from {@link #createShader()} that the
+     * caller owns, so many meshes can share one program.
+     */
+    public StarFieldMesh(int capacity, ShaderProgram shader) {
+        this(capacity, shader, false);
+    }
+
+    private StarFieldMesh(int capacity, ShaderProgram shader, boolean ownsShader) {
+        if (capacity < 0 || capacity > MAX_STARS) {
+            throw new IllegalArgumentException("Star capacity must be between 0 and " + MAX_STARS + ": " + capacity);
+        }
+        this.shader = shader;
+        this.ownsShader = ownsShader;
+        this.capacity = capacity;
+        this.mesh = new Mesh(true, capacity * 4, capacity * 6,
+            new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+            new VertexAttribute(Usage.Generic, 2, "a_local"),
+            new VertexAttribute(Usage.Generic, 1, "a_radius"),
+            VertexAttribute.ColorPacked()
+        );
+        short[] indices = new short[capacity * 6];
+        for (int star = 0, i = 0; star < capacity; star++) {
+            short first = (short) (star * 4);
+            indices[i++] = first;
+            indices[i++] = (short) (first + 1);
+            indices[i++] = (short) (first + 2);
+            indices[i++] = (short) (first + 2);
+            indices[i++] = (short) (first + 3);
+            indices[i++] = first;
+        }
+        mesh.setIndices(indices);
+    }
+
+    public static ShaderProgram createShader() {
+        ShaderProgram program = new ShaderProgram(
+            Gdx.files.internal("shaders/stars.vert"),
+            Gdx.files.internal("shaders/stars.frag")
+        );
+        if (!program.isCompiled()) {
+            Gdx.app.error("StarFieldMesh", "Star shader failed to compile: " + program.getLog());
+        }
+        return program;
+    }
+
+    /**
+     * Discards the stars added so far; the GPU copy is kept until the next
+     * {@link #upload()}.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    public void add(float x, float y, float radius, Color color) {
+        if (count == capacity) {
+            throw new IllegalStateException("Star field is full");
+        }
+        if (vertices == null) {
+            vertices = new float[capacity * FLOATS_PER_STAR];
+        }
+        writeStar(vertices, count++, x, y, radius, color);
+    }
+
+    /**
+     * Writes the vertex data of star {@code index} into an array laid out for
+     * {@link #upload(float[], int)}. Touches no GL state, so stars can be built
+     * on any thread.
+     */
+    public static void writeStar(float[] vertices, int index, float x, float y, float radius, Color color) {
+        float packed = Color.toFloatBits(color.r, color.g, color.b, 1f);
+        int offset = index * FLOATS_PER_STAR;
+        for (int corner = 0; corner < 4; corner++) {
+            vertices[offset++] = x;
+            vertices[offset++] = y;
+            vertices[offset++] = CORNER_X[corner];
+            vertices[offset++] = CORNER_Y[corner];
+            vertices[offset++] = radius;
+            vertices[offset++] = packed;
+        }
+    }
+
+    /**
+     * Copies the added stars to the GPU.
+     */
+    public void upload() {
+        upload(vertices, count);
+    }
+
+    /**
+     * Replaces the GPU copy with stars built by {@link #writeStar}.
+     */
+    public void upload(float[] starVertices, int stars) {
+        if (stars > capacity) {
+            throw new IllegalArgumentException("Star field holds " + capacity + " stars: " + stars);
+        }
+        if (stars > 0) {
+            mesh.setVertices(starVertices, 0, stars * FLOATS_PER_STAR);
+        }
+        uploaded = stars;
+    }
+
+    /**
+     * GPU memory held by the mesh, in bytes.
+     */
+    public long byteSize() {
+        return (long) capacity * (FLOATS_PER_STAR * 4 + 6 * 2);
+    }
+
+    public int size() {
+        return uploaded;
+    }
+
+    /**
+     * Draws the uploaded stars.
+     *
+     * @param projection Camera the field is seen through; carries parallax and zoom
+     * @param screenWidth Viewport width in pixels, for antialiasing
+     */
+    public void render(Matrix4 projection, int screenWidth) {
+        render(projection, screenWidth, uploaded);
+    }
+
+    /**
+     * Draws the first {@code maxStars} uploaded stars, so a field can be
+     * thinned without uploading it again.
+     */
+    public void render(Matrix4 projection, int screenWidth, int maxStars) {
+        int stars = Math.min(uploaded, maxStars);
+        if (stars <= 0 || !shader.isCompiled()) return;
+        // World units per pixel, from the length of the projection's x axis (the camera may be rotated)
+        float scale = (float) Math.sqrt(projection.val[Matrix4.M00] * projection.val[Matrix4.M00]
+            + projection.val[Matrix4.M10] * projection.val[Matrix4.M10]);
+        float pixelSize = 2f / (scale * Math.max(1, screenWidth));
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        if (!uniformsFetched) {
+            // Looked up without the pedantic check, which is a global other shaders rely on
+            projTransLocation = shader.fetchUniformLocation("u_projTrans", false);
+            pixelSizeLocation = shader.fetchUniformLocation("u_pixelSize", false);
+            uniformsFetched = true;
+        }
+        shader.setUniformMatrix(projTransLocation, projection);
+        shader.setUniformf(pixelSizeLocation, pixelSize);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, stars * 6);
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        if (ownsShader) {
+            shader.dispose();
+        }
+    }
+}
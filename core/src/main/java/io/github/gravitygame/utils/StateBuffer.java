@@ -0,0 +1,218 @@
+package io.github.gravitygame.utils;
+
+import java.util.UUID;
+
+import io.github.gravitygame.physics.BodyStore;
+
+/**
+ * Preallocated ring of world snapshots stored as flat float arrays
+ * (frame x body x field). Every ring slot has one {@link WorldState} view bound
+ * to it, so capturing and reading frames allocates nothing once the body
+ * capacity has been reached.
+ */
+public final class StateBuffer {
+    // Per-body fields, interleaved so one body's record in a frame is contiguous
+    static final int X = 0;
+    static final int Y = 1;
+    static final int VX = 2;
+    static final int VY = 3;
+    static final int RADIUS = 4;
+    static final int MASS = 5;
+    static final int COLOR = 6; // Packed ABGR, see Color.toFloatBits
+    static final int FIELDS = 7;
+
+    private final int frameCapacity;
+    int bodyCapacity;
+    float[] data;
+    UUID[] ids;
+    final int[] counts;
+    // Simulation clock at capture, so any frame can be restored and re-simulated
+    final double[] times;
+    // Timeline each frame belongs to; bumped by every edit's re-simulation
+    final int[] generations;
+    private final WorldState[] views;
+
+    // Ring slot of the oldest frame, and the number of frames held
+    private int head = 0;
+    private int size = 0;
+
+    public StateBuffer(int frameCapacity, int initialBodyCapacity) {
+        this.frameCapacity = frameCapacity;
+        this.bodyCapacity = Math.max(1, initialBodyCapacity);
+        this.data = new float[frameCapacity * bodyCapacity * FIELDS];
+        this.ids = new UUID[frameCapacity * bodyCapacity];
+        this.counts = new int[frameCapacity];
+        this.times = new double[frameCapacity];
+        this.generations = new int[frameCapacity];
+        this.views = new WorldState[frameCapacity];
+        for (int slot = 0; slot < frameCapacity; slot++) {
+            views[slot] = new WorldState(this, slot);
+        }
+    }
+
+    /**
+     * Copies the store into a new newest frame, overwriting the oldest frame
+     * when the ring is full.
+     *
+     * @param time Simulation time the store corresponds to
+     * @param generation Timeline the frame belongs to
+     * @return The view of the captured frame
+     */
+    public WorldState capture(BodyStore store, double time, int generation) {
+        int count = store.size();
+        int slot = claimSlot(count);
+
+        float[] frame = data;
+        int base = slot * bodyCapacity;
+        for (int i = 0; i < count; i++) {
+            int offset = (base + i) * FIELDS;
+            frame[offset + X] = store.getX(i);
+            frame[offset + Y] = store.getY(i);
+            frame[offset + VX] = store.getVelocityX(i);
+            frame[offset + VY] = store.getVelocityY(i);
+            frame[offset + RADIUS] = store.getRadius(i);
+            frame[offset + MASS] = store.getMass(i);
+            frame[offset + COLOR] = store.getPackedColor(i);
+            ids[base + i] = store.getId(i);
+        }
+        counts[slot] = count;
+        times[slot] = time;
+        generations[slot] = generation;
+        return views[slot];
+    }
+
+    /**
+     * Copies a frame from another buffer into a new newest frame, overwriting
+     * the oldest frame when the ring is full.
+     *
+     * @return The view of the copied frame
+     */
+    public WorldState capture(WorldState source) {
+        int count = source.size();
+        int slot = claimSlot(count);
+        StateBuffer from = source.buffer;
+        int fromBase = source.slot * from.bodyCapacity;
+        int base = slot * bodyCapacity;
+        System.arraycopy(from.data, fromBase * FIELDS, data, base * FIELDS, count * FIELDS);
+        System.arraycopy(from.ids, fromBase, ids, base, count);
+        counts[slot] = count;
+        times[slot] = source.getTime();
+        generations[slot] = source.getGeneration();
+        return views[slot];
+    }
+
+    /**
+     * Makes room for a frame of {@code count} bodies and returns its slot.
+     */
+    private int claimSlot(int count) {
+        if (count > bodyCapacity) {
+            grow(count);
+        }
+        if (size == frameCapacity) {
+            int slot = head;
+            head = next(head);
+            return slot;
+        }
+        size++;
+        return slotOf(size - 1);
+    }
+
+    /**
+     * Discards the oldest frame.
+     */
+    public void dropOldest() {
+        if (size == 0) return;
+        head = next(head);
+        size--;
+    }
+
+    /**
+     * Moves the oldest frame to the newest position. Requires a free slot, which
+     * the caller guarantees by only rotating short histories.
+     */
+    public void rotateOldest() {
+        if (size < 2 || size == frameCapacity) return;
+        copySlot(head, slotOf(size));
+        head = next(head);
+    }
+
+    /**
+     * Returns a frame by age, where 0 is the oldest and {@code size() - 1} the
+     * newest. The view reflects whatever occupies that slot, so callers should
+     * not hold it across captures.
+     */
+    public WorldState get(int age) {
+        return views[slotOf(age)];
+    }
+
+    public WorldState oldest() {
+        return size > 0 ? get(0) : null;
+    }
+
+    public WorldState newest() {
+        return size > 0 ? get(size - 1) : null;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return frameCapacity;
+    }
+
+    /**
+     * Approximate heap held by the frames, in bytes; id references count as
+     * four bytes each, as with compressed pointers.
+     */
+    public long byteSize() {
+        return (long) data.length * 4 + (long) ids.length * 4 + (long) frameCapacity * (4 + 8 + 4);
+    }
+
+    /**
+     * Heap one body takes in one frame, in bytes, as counted by {@link #byteSize()}.
+     */
+    public static int bytesPerBody() {
+        return FIELDS * 4 + 4;
+    }
+
+    private int slotOf(int age) {
+        return (head + age) % frameCapacity;
+    }
+
+    private int next(int slot) {
+        return slot + 1 == frameCapacity ? 0 : slot + 1;
+    }
+
+    private void copySlot(int from, int to) {
+        int count = counts[from];
+        System.arraycopy(data, from * bodyCapacity * FIELDS, data, to * bodyCapacity * FIELDS, count * FIELDS);
+        System.arraycopy(ids, from * bodyCapacity, ids, to * bodyCapacity, count);
+        counts[to] = count;
+        times[to] = times[from];
+        generations[to] = generations[from];
+    }
+
+    /**
+     * Widens every frame to hold at least {@code needed} bodies, keeping the
+     * frames already captured.
+     */
+    private void grow(int needed) {
+        int newCapacity = Math.max(needed, bodyCapacity * 2);
+        float[] newData = new float[frameCapacity * newCapacity * FIELDS];
+        UUID[] newIds = new UUID[frameCapacity * newCapacity];
+        for (int slot = 0; slot < frameCapacity; slot++) {
+            int count = counts[slot];
+            System.arraycopy(data, slot * bodyCapacity * FIELDS, newData, slot * newCapacity * FIELDS, count * FIELDS);
+            System.arraycopy(ids, slot * bodyCapacity, newIds, slot * newCapacity, count);
+        }
+        data = newData;
+        ids = newIds;
+        bodyCapacity = newCapacity;
+    }
+}
@@ -1,29 +1,99 @@
 package io.github.gravitygame.utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.UUID;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
 
 import io.github.gravitygame.entities.BodyState;
 
-public class WorldState {
-    private final List<BodyState> bodyStates = new ArrayList<>();
+/**
+ * Read-only view of one captured frame in a {@link StateBuffer}. Bodies are
+ * addressed by their index in the frame, which matches their handle in the
+ * body store at capture time.
+ */
+public final class WorldState {
+    final StateBuffer buffer;
+    final int slot;
 
-    public WorldState() {
-        // Default constructor
+    WorldState(StateBuffer buffer, int slot) {
+        this.buffer = buffer;
+        this.slot = slot;
     }
 
-    // Copy constructor
-    public WorldState(WorldState other) {
-        for (BodyState bodyState : other.getBodyStates()) {
-            this.bodyStates.add(new BodyState(bodyState)); // Using the BodyState copy constructor
-        }
+    public int size() {
+        return buffer.counts[slot];
+    }
+
+    /**
+     * Simulation time at which the frame was captured.
+     */
+    public double getTime() {
+        return buffer.times[slot];
+    }
+
+    /**
+     * Timeline the frame belongs to. Edits start a new timeline, so frames from
+     * before the latest edit carry an older generation.
+     */
+    public int getGeneration() {
+        return buffer.generations[slot];
+    }
+
+    /**
+     * Copies the frame into a buffer of its own, so it stays valid while the
+     * source buffer keeps changing. Allocates; meant for edits.
+     */
+    public WorldState copy() {
+        return new StateBuffer(1, size()).capture(this);
+    }
+
+    private int offset(int index) {
+        return (slot * buffer.bodyCapacity + index) * StateBuffer.FIELDS;
     }
 
-    public void addBodyState(BodyState bodyState) {
-        bodyStates.add(bodyState);
+    public float getX(int index) { return buffer.data[offset(index) + StateBuffer.X]; }
+    public float getY(int index) { return buffer.data[offset(index) + StateBuffer.Y]; }
+    public float getVelocityX(int index) { return buffer.data[offset(index) + StateBuffer.VX]; }
+    public float getVelocityY(int index) { return buffer.data[offset(index) + StateBuffer.VY]; }
+    public float getRadius(int index) { return buffer.data[offset(index) + StateBuffer.RADIUS]; }
+    public float getMass(int index) { return buffer.data[offset(index) + StateBuffer.MASS]; }
+    public float getPackedColor(int index) { return buffer.data[offset(index) + StateBuffer.COLOR]; }
+    public UUID getId(int index) { return buffer.ids[slot * buffer.bodyCapacity + index]; }
+
+    /**
+     * Unpacks a body's colour into {@code out}.
+     *
+     * @return {@code out}
+     */
+    public Color getColor(int index, Color out) {
+        Color.abgr8888ToColor(out, getPackedColor(index));
+        return out;
+    }
+
+    /**
+     * Returns the index of the body with the given id, or -1 if it is not in
+     * the frame.
+     */
+    public int indexOf(UUID id) {
+        for (int i = 0; i < size(); i++) {
+            if (getId(i).equals(id)) return i;
+        }
+        return -1;
     }
 
-    public List<BodyState> getBodyStates() {
-        return bodyStates;
+    /**
+     * Copies a body out of the frame. Allocates; meant for edits rather than
+     * per-frame reads.
+     */
+    public BodyState toBodyState(int index) {
+        return new BodyState(
+            new Vector2(getX(index), getY(index)),
+            new Vector2(getVelocityX(index), getVelocityY(index)),
+            getRadius(index),
+            getMass(index),
+            getColor(index, new Color()),
+            getId(index)
+        );
     }
 }
@@ -0,0 +1,38 @@
+package io.github.gravitygame.physics;
+
+/**
+ * Java 17+ entry point of the vectorised direct-sum kernel. The Vector API is
+ * an incubator module, so it is only used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise callers fall back to
+ * the scalar kernel. Vector types are confined to {@link VectorizedGravityKernel}
+ * so this class loads even when the module is missing.
+ */
+final class SimdGravityKernel {
+    private static final boolean AVAILABLE = detect();
+
+    private SimdGravityKernel() {} // Static utility
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Adds the exact force on body {@code i} from every other body to its
+     * force accumulators.
+     */
+    static void accumulate(BodyStore store, int i, double phase) {
+        VectorizedGravityKernel.accumulate(store, i, phase);
+    }
+
+    private static boolean detect() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            // Forces species selection so an unsupported platform fails here
+            return VectorizedGravityKernel.laneCount() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
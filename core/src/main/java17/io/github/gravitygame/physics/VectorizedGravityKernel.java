@@ -0,0 +1,88 @@
+package io.github.gravitygame.physics;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Direct-sum gravity for one target against every source, evaluated a full
+ * vector of sources at a time. Mirrors the scalar pair force in
+ * {@link GravityManager}, including the dance component. The pulse is computed
+ * in float precision, so results are close to, not bit-identical with, the
+ * scalar kernel. The lane-wise sine may also round differently before and
+ * after the JIT intrinsifies it, so this kernel is left out of the
+ * bit-identical guarantee of parallel mode.
+ */
+final class VectorizedGravityKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static final float TWO_PI = (float) (Math.PI * 2);
+
+    private VectorizedGravityKernel() {} // Static utility
+
+    static int laneCount() {
+        return SPECIES.length();
+    }
+
+    static void accumulate(BodyStore store, int i, double phase) {
+        int count = store.count;
+        float[] x = store.x, y = store.y, vx = store.vx, vy = store.vy, mass = store.mass;
+        float ax = x[i], ay = y[i], avx = vx[i], avy = vy[i], aMass = mass[i];
+
+        // sin is periodic, so only the phase modulo 2 pi has to survive the cast to float
+        float wrappedPhase = (float) (phase % TWO_PI);
+        float gTimesMass = GravityManager.G * aMass;
+
+        FloatVector sumX = FloatVector.zero(SPECIES);
+        FloatVector sumY = FloatVector.zero(SPECIES);
+
+        for (int j = 0; j < count; j += SPECIES.length()) {
+            VectorMask<Float> inRange = SPECIES.indexInRange(j, count);
+
+            FloatVector dx = FloatVector.fromArray(SPECIES, x, j, inRange).sub(ax);
+            FloatVector dy = FloatVector.fromArray(SPECIES, y, j, inRange).sub(ay);
+            FloatVector distance = dx.mul(dx).add(dy.mul(dy)).sqrt();
+
+            // Skips the target itself and anything too close to prevent extreme forces
+            VectorMask<Float> valid = inRange.and(distance.compare(VectorOperators.GE, 0.01f));
+
+            // Out-of-range and skipped lanes divide by one instead of zero
+            FloatVector safeDistance = distance.blend(1f, valid.not());
+            FloatVector dirX = dx.div(safeDistance);
+            FloatVector dirY = dy.div(safeDistance);
+
+            FloatVector effective = distance.max(GravityManager.MIN_DISTANCE);
+            FloatVector bMass = FloatVector.fromArray(SPECIES, mass, j, inRange).blend(1f, inRange.not());
+            FloatVector forceMagnitude = bMass.mul(gTimesMass).div(effective.mul(effective));
+
+            FloatVector rvx = FloatVector.fromArray(SPECIES, vx, j, inRange).sub(avx);
+            FloatVector rvy = FloatVector.fromArray(SPECIES, vy, j, inRange).sub(avy);
+            FloatVector relativeSpeed = rvx.mul(rvx).add(rvy.mul(rvy)).sqrt();
+            FloatVector danceIntensity = relativeSpeed.div(20f).min(1f).mul(GravityManager.DANCE_FACTOR);
+
+            // 1 - massRatio of the scalar kernel
+            FloatVector otherRatio = bMass.div(bMass.add(aMass));
+            FloatVector dancePulse = distance.mul(0.01f).add(wrappedPhase)
+                .lanewise(VectorOperators.SIN)
+                .mul(danceIntensity);
+
+            FloatVector radial = forceMagnitude.div(aMass);
+            FloatVector tangential = forceMagnitude.mul(dancePulse).mul(otherRatio).div(aMass);
+
+            FloatVector fx = dirX.mul(radial).sub(dirY.mul(tangential));
+            FloatVector fy = dirY.mul(radial).add(dirX.mul(tangential));
+            sumX = sumX.add(fx, valid);
+            sumY = sumY.add(fy, valid);
+        }
+
+        // reduceLanes leaves the order of the additions open; add the lanes in index order
+        float totalX = 0, totalY = 0;
+        for (int lane = 0; lane < SPECIES.length(); lane++) {
+            totalX += sumX.lane(lane);
+            totalY += sumY.lane(lane);
+        }
+        store.fx[i] += totalX;
+        store.fy[i] += totalY;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.gravitygame.utils;
+
+/**
+ * Java 17+ entry point of the custom Flight Recorder events. The
+ * {@code jdk.jfr} module can be left out of a runtime image, so it is only
+ * used when present; JFR types are confined to {@link JfrEvents} so this
+ * class loads either way. While no recording runs, {@code begin} calls
+ * return null without allocating and {@code end} calls return at once.
+ */
+public final class FlightEvents {
+    private static final boolean AVAILABLE = detect();
+
+    private FlightEvents() {} // Static utility
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static Object beginStep() {
+        return AVAILABLE ? JfrEvents.beginStep() : null;
+    }
+
+    /**
+     * @param pairs Body pairs summed directly, or 0 when the step used Barnes-Hut
+     */
+    public static void endStep(Object event, String backend, int bodies, long pairs, boolean barnesHut) {
+        if (event != null) JfrEvents.endStep(event, backend, bodies, pairs, barnesHut);
+    }
+
+    public static Object beginCapture() {
+        return AVAILABLE ? JfrEvents.beginCapture() : null;
+    }
+
+    public static void endCapture(Object event, int bodies) {
+        if (event != null) JfrEvents.endCapture(event, bodies);
+    }
+
+    public static Object beginCycle() {
+        return AVAILABLE ? JfrEvents.beginCycle() : null;
+    }
+
+    public static void endCycle(Object event, int historySize, boolean cycled) {
+        if (event != null) JfrEvents.endCycle(event, historySize, cycled);
+    }
+
+    public static Object beginFastForward() {
+        return AVAILABLE ? JfrEvents.beginFastForward() : null;
+    }
+
+    public static void endFastForward(Object event, int steps) {
+        if (event != null) JfrEvents.endFastForward(event, steps);
+    }
+
+    public static Object beginEdit() {
+        return AVAILABLE ? JfrEvents.beginEdit() : null;
+    }
+
+    /**
+     * @param kind "add" or "remove"
+     * @param resimulated Whether the edit started a re-simulation of the history window
+     */
+    public static void endEdit(Object event, String kind, int bodies, boolean resimulated) {
+        if (event != null) JfrEvents.endEdit(event, kind, bodies, resimulated);
+    }
+
+    public static Object beginCollisions() {
+        return AVAILABLE ? JfrEvents.beginCollisions() : null;
+    }
+
+    public static void endCollisions(Object event, int bodies, long pairs, int hits) {
+        if (event != null) JfrEvents.endCollisions(event, bodies, pairs, hits);
+    }
+
+    private static boolean detect() {
+        if (ModuleLayer.boot().findModule("jdk.jfr").isEmpty()) {
+            return false;
+        }
+        try {
+            return JfrEvents.initialize();
+        } catch (LinkageError | SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.gravitygame.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Flight Recorder event types and the code that fills them in. Events are
+ * only created while a recording runs, which a recorder listener tracks, so
+ * the game allocates nothing for them otherwise.
+ */
+final class JfrEvents {
+    private static volatile boolean recording = false;
+
+    private JfrEvents() {} // Static utility
+
+    @Name("io.github.gravitygame.SimulationStep")
+    @Label("Simulation Step")
+    @Description("One fixed physics step")
+    @Category({ "GravityGame", "Simulation" })
+    @StackTrace(false)
+    static final class StepEvent extends Event {
+        @Label("Backend")
+        String backend;
+        @Label("Bodies")
+        int bodies;
+        @Label("Pairs")
+        @Description("Body pairs summed directly; 0 when the step used Barnes-Hut")
+        long pairs;
+        @Label("Barnes-Hut")
+        boolean barnesHut;
+    }
+
+    @Name("io.github.gravitygame.SnapshotCapture")
+    @Label("Snapshot Capture")
+    @Description("A history frame published by the simulation thread")
+    @Category({ "GravityGame", "History" })
+    @StackTrace(false)
+    static final class CaptureEvent extends Event {
+        @Label("Bodies")
+        int bodies;
+    }
+
+    @Name("io.github.gravitygame.CycleStates")
+    @Label("Cycle States")
+    @Description("The display advancing through the history")
+    @Category({ "GravityGame", "History" })
+    @StackTrace(false)
+    static final class CycleEvent extends Event {
+        @Label("History Size")
+        int historySize;
+        @Label("Cycled")
+        boolean cycled;
+    }
+
+    @Name("io.github.gravitygame.FastForward")
+    @Label("Fast Forward")
+    @Description("A pending re-simulation finished in one go")
+    @Category({ "GravityGame", "Simulation" })
+    @StackTrace(false)
+    static final class FastForwardEvent extends Event {
+        @Label("Steps")
+        int steps;
+    }
+
+    @Name("io.github.gravitygame.Edit")
+    @Label("Edit")
+    @Description("A body added or removed, applied on the simulation thread")
+    @Category({ "GravityGame", "Simulation" })
+    @StackTrace(false)
+    static final class EditEvent extends Event {
+        @Label("Kind")
+        String kind;
+        @Label("Bodies")
+        @Description("Bodies after the edit")
+        int bodies;
+        @Label("Re-simulated")
+        boolean resimulated;
+    }
+
+    @Name("io.github.gravitygame.CollisionScan")
+    @Label("Collision Scan")
+    @Description("A collision check of the displayed frame")
+    @Category({ "GravityGame", "Collisions" })
+    @StackTrace(false)
+    static final class CollisionEvent extends Event {
+        @Label("Bodies")
+        int bodies;
+        @Label("Pairs Tested")
+        long pairs;
+        @Label("Hits")
+        @Description("Overlaps that started this frame")
+        int hits;
+    }
+
+    /**
+     * Starts tracking recordings.
+     *
+     * @return Whether JFR can record in this JVM
+     */
+    static boolean initialize() {
+        if (!FlightRecorder.isAvailable()) {
+            return false;
+        }
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                updateRecording();
+            }
+
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                updateRecording();
+            }
+        });
+        updateRecording();
+        return true;
+    }
+
+    private static void updateRecording() {
+        boolean running = false;
+        if (FlightRecorder.isInitialized()) {
+            for (Recording candidate : FlightRecorder.getFlightRecorder().getRecordings()) {
+                running |= candidate.getState() == RecordingState.RUNNING;
+            }
+        }
+        recording = running;
+    }
+
+    private static <T extends Event> T begin(T event) {
+        event.begin();
+        return event;
+    }
+
+    static Object beginStep() {
+        return recording ? begin(new StepEvent()) : null;
+    }
+
+    static void endStep(Object started, String backend, int bodies, long pairs, boolean barnesHut) {
+        StepEvent event = (StepEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.backend = backend;
+            event.bodies = bodies;
+            event.pairs = pairs;
+            event.barnesHut = barnesHut;
+            event.commit();
+        }
+    }
+
+    static Object beginCapture() {
+        return recording ? begin(new CaptureEvent()) : null;
+    }
+
+    static void endCapture(Object started, int bodies) {
+        CaptureEvent event = (CaptureEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.bodies = bodies;
+            event.commit();
+        }
+    }
+
+    static Object beginCycle() {
+        return recording ? begin(new CycleEvent()) : null;
+    }
+
+    static void endCycle(Object started, int historySize, boolean cycled) {
+        CycleEvent event = (CycleEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.historySize = historySize;
+            event.cycled = cycled;
+            event.commit();
+        }
+    }
+
+    static Object beginFastForward() {
+        return recording ? begin(new FastForwardEvent()) : null;
+    }
+
+    static void endFastForward(Object started, int steps) {
+        FastForwardEvent event = (FastForwardEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.steps = steps;
+            event.commit();
+        }
+    }
+
+    static Object beginEdit() {
+        return recording ? begin(new EditEvent()) : null;
+    }
+
+    static void endEdit(Object started, String kind, int bodies, boolean resimulated) {
+        EditEvent event = (EditEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.bodies = bodies;
+            event.resimulated = resimulated;
+            event.commit();
+        }
+    }
+
+    static Object beginCollisions() {
+        return recording ? begin(new CollisionEvent()) : null;
+    }
+
+    static void endCollisions(Object started, int bodies, long pairs, int hits) {
+        CollisionEvent event = (CollisionEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.bodies = bodies;
+            event.pairs = pairs;
+            event.hits = hits;
+            event.commit();
+        }
+    }
+}
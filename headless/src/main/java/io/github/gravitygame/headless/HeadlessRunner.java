@@ -0,0 +1,282 @@
+package io.github.gravitygame.headless;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import io.github.gravitygame.managers.SimulationManager;
+import io.github.gravitygame.managers.SimulationThread;
+import io.github.gravitygame.managers.WorldStateManager;
+import io.github.gravitygame.physics.CollisionManager;
+import io.github.gravitygame.physics.GravityManager;
+import io.github.gravitygame.physics.NativeIntegrator;
+import io.github.gravitygame.scenarios.Scenario;
+import io.github.gravitygame.utils.WorldState;
+
+/**
+ * Runs the simulation without a window, audio or GL context. A scenario is
+ * loaded, advanced a number of simulation ticks back to back, and the run's
+ * timing is printed while the final bodies are written as a scenario file,
+ * so a run can be continued or compared later.
+ *
+ * <pre>
+ * --scenario NAME|&lt;file&gt;    bodies to start from (default orbits); NAME is one of
+ *                            orbits, galaxy, plummer, collision, protoplanetary, rings
+ * --bodies N                 body count for generated scenarios (default 1000)
+ * --seed S                   seed for generated scenarios (default 1)
+ * --steps N                  simulation ticks to time (default 1000)
+ * --warmup N                 untimed ticks run first (default 100)
+ * --backend BOX2D|NATIVE     integration backend (default BOX2D)
+ * --scheme LEAPFROG|...      native integrator scheme
+ * --solver DIRECT|...        gravity solver (default AUTO)
+ * --no-collisions            skip collision detection
+ * --output FILE              final bodies (default results.csv)
+ * --timing FILE              timing summary as JSON
+ * --verify-threads N         instead of timing, run the scenario with one force
+ *                            worker thread and with N and check that both end
+ *                            bit-identical, with the vector kernel off; parallel
+ *                            mode needs 1024 bodies or more
+ * </pre>
+ */
+public class HeadlessRunner {
+    private String scenarioName = "orbits";
+    private int bodyCount = 1000;
+    private long seed = 1;
+    private int steps = 1000;
+    private int warmup = 100;
+    private SimulationManager.Backend backend = SimulationManager.Backend.BOX2D;
+    private NativeIntegrator.Scheme scheme = null;
+    private GravityManager.Solver solver = GravityManager.Solver.AUTO;
+    private boolean collisions = true;
+    private String output = "results.csv";
+    private String timing = null;
+    private int verifyThreads = 0;
+
+    private int collisionCount = 0;
+
+    public static void main(String[] args) throws IOException {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+        runner.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--no-collisions")) {
+                collisions = false;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--scenario": scenarioName = value; break;
+                case "--bodies": bodyCount = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--steps": steps = Integer.parseInt(value); break;
+                case "--warmup": warmup = Integer.parseInt(value); break;
+                case "--backend": backend = SimulationManager.Backend.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--scheme": scheme = NativeIntegrator.Scheme.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--solver": solver = GravityManager.Solver.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--output": output = value; break;
+                case "--timing": timing = value; break;
+                case "--verify-threads": verifyThreads = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+    }
+
+    private Scenario loadScenario() throws IOException {
+        if (Scenario.isGenerator(scenarioName)) {
+            return Scenario.generate(scenarioName, bodyCount, seed);
+        }
+        try (Reader reader = new FileReader(scenarioName)) {
+            return Scenario.read(reader);
+        }
+    }
+
+    private void run() throws IOException {
+        // Box2D backs the bodies even with the native backend; nothing else needs natives
+        GdxNativesLoader.load();
+        Box2D.init();
+        GravityManager.setSolver(solver);
+
+        long loadStart = System.nanoTime();
+        Scenario scenario = loadScenario();
+        if (verifyThreads > 0) {
+            System.exit(verify(scenario) ? 0 : 1);
+        }
+        WorldStateManager worldStateManager = new WorldStateManager();
+        SimulationManager simulationManager = createSimulation(worldStateManager);
+        CollisionManager collisionManager = collisions
+            ? new CollisionManager(worldStateManager, (size, intensity) -> collisionCount++)
+            : null;
+
+        // Ticked on this thread instead of started, so the run is as fast as the simulation
+        SimulationThread simulation = new SimulationThread(simulationManager, worldStateManager);
+        // Added in one edit, before any history exists, so nothing is re-simulated
+        scenario.addTo(simulationManager);
+        simulationManager.update(0);
+        long loadNanos = System.nanoTime() - loadStart;
+
+        for (int i = 0; i < warmup; i++) {
+            tick(simulation, worldStateManager, collisionManager);
+        }
+        collisionCount = 0;
+        double startTime = simulationManager.getSimulationTime();
+
+        long[] tickNanos = new long[steps];
+        long runStart = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            long start = System.nanoTime();
+            tick(simulation, worldStateManager, collisionManager);
+            tickNanos[i] = System.nanoTime() - start;
+        }
+        long runNanos = System.nanoTime() - runStart;
+
+        WorldState last = worldStateManager.getMostRecentState();
+        Scenario result = last != null ? Scenario.fromState(last) : new Scenario();
+        try (Writer writer = new FileWriter(output)) {
+            result.write(writer);
+        }
+
+        String summary = summarize(scenario.size(), result.size(),
+            simulationManager.getSimulationTime() - startTime, loadNanos, runNanos, tickNanos);
+        System.out.println(summary);
+        if (timing != null) {
+            try (Writer writer = new FileWriter(timing)) {
+                writer.write(summary);
+                writer.write('\n');
+            }
+        }
+        simulationManager.dispose();
+    }
+
+    private SimulationManager createSimulation(WorldStateManager worldStateManager) {
+        SimulationManager simulationManager = new SimulationManager();
+        simulationManager.setWorldStateManager(worldStateManager);
+        worldStateManager.setSimulationManager(simulationManager);
+        simulationManager.setBackend(backend);
+        if (scheme != null) {
+            simulationManager.setIntegratorScheme(scheme);
+        }
+        return simulationManager;
+    }
+
+    /**
+     * Runs the scenario with one force worker and again with
+     * {@code verifyThreads} workers, and compares the final frames bit for bit.
+     * Both runs take the parallel path; the serial direct sum adds each pair
+     * to both bodies at once and so rounds differently. The vector kernel is
+     * off for both, as its results may depend on JIT state.
+     *
+     * @return Whether both runs ended identically
+     */
+    private boolean verify(Scenario scenario) {
+        GravityManager.setSimd(false);
+        GravityManager.setParallel(true);
+        GravityManager.setParallelism(1);
+        WorldState single = simulateQuietly(scenario);
+        GravityManager.setParallelism(verifyThreads);
+        WorldState parallel = simulateQuietly(scenario);
+
+        int mismatch = firstMismatch(single, parallel);
+        if (mismatch < 0) {
+            System.out.println("Identical after " + (warmup + steps) + " ticks with 1 and " + verifyThreads
+                + " threads (" + single.size() + " bodies)");
+            return true;
+        }
+        System.out.println("Runs differ at body " + mismatch + " after " + (warmup + steps) + " ticks with 1 and "
+            + verifyThreads + " threads");
+        return false;
+    }
+
+    /**
+     * Loads the scenario into a new simulation and runs warmup plus steps
+     * ticks without timing or collision checks.
+     *
+     * @return A copy of the last frame
+     */
+    private WorldState simulateQuietly(Scenario scenario) {
+        WorldStateManager worldStateManager = new WorldStateManager();
+        SimulationManager simulationManager = createSimulation(worldStateManager);
+        SimulationThread simulation = new SimulationThread(simulationManager, worldStateManager);
+        scenario.addTo(simulationManager);
+        for (int i = 0; i < warmup + steps; i++) {
+            tick(simulation, worldStateManager, null);
+        }
+        WorldState last = worldStateManager.getMostRecentState();
+        if (last == null) {
+            throw new IllegalArgumentException("Nothing to verify without any ticks");
+        }
+        last = last.copy();
+        simulationManager.dispose();
+        return last;
+    }
+
+    /**
+     * Index of the first body whose position or velocity differs in any bit,
+     * or -1 when the frames match.
+     */
+    private static int firstMismatch(WorldState a, WorldState b) {
+        if (a.size() != b.size() || a.getTime() != b.getTime()) return 0;
+        for (int i = 0; i < a.size(); i++) {
+            if (Float.floatToIntBits(a.getX(i)) != Float.floatToIntBits(b.getX(i))
+                    || Float.floatToIntBits(a.getY(i)) != Float.floatToIntBits(b.getY(i))
+                    || Float.floatToIntBits(a.getVelocityX(i)) != Float.floatToIntBits(b.getVelocityX(i))
+                    || Float.floatToIntBits(a.getVelocityY(i)) != Float.floatToIntBits(b.getVelocityY(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One tick as the game runs it: simulate and capture, then move the
+     * captured frame into the history and check it for collisions.
+     */
+    private static void tick(SimulationThread simulation, WorldStateManager worldStateManager,
+            CollisionManager collisionManager) {
+        simulation.tick();
+        worldStateManager.drainFrames();
+        if (collisionManager != null) {
+            collisionManager.update();
+        }
+    }
+
+    private String summarize(int initialBodies, int finalBodies, double simulatedSeconds, long loadNanos,
+            long runNanos, long[] tickNanos) {
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        double wallSeconds = runNanos / 1e9;
+        return String.format(Locale.ROOT,
+            "{\"scenario\":\"%s\",\"seed\":%d,\"bodies\":%d,\"finalBodies\":%d,\"backend\":\"%s\","
+                + "\"solver\":\"%s\",\"scheme\":\"%s\",\"loadSeconds\":%.4f,\"steps\":%d,\"simulatedSeconds\":%.4f,"
+                + "\"wallSeconds\":%.4f,\"stepsPerSecond\":%.1f,\"stepMillis\":{\"mean\":%.4f,"
+                + "\"p50\":%.4f,\"p99\":%.4f,\"max\":%.4f},\"collisions\":%d}",
+            scenarioName.replace("\\", "\\\\").replace("\"", "\\\""), seed, initialBodies, finalBodies, backend,
+            solver, scheme != null ? scheme : "default", loadNanos / 1e9, steps, simulatedSeconds,
+            wallSeconds, steps / Math.max(wallSeconds, 1e-9), steps == 0 ? 0 : runNanos / 1e6 / steps,
+            percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 1.0), collisionCount);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}